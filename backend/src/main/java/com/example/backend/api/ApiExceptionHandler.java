@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
@@ -22,6 +23,13 @@ public class ApiExceptionHandler {
         return ResponseEntity.status(s).body(new ApiError(Instant.now(), s.value(), s.getReasonPhrase(), ex.getMessage(), List.of()));
     }
 
+    // coda dei bonifici piena o bonifico non eseguito in tempo: si può riprovare
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiError> unavailable(RejectedExecutionException ex) {
+        HttpStatus s = HttpStatus.SERVICE_UNAVAILABLE; // 503
+        return ResponseEntity.status(s).body(new ApiError(Instant.now(), s.value(), s.getReasonPhrase(), ex.getMessage(), List.of()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> illegalArg(IllegalArgumentException ex) {
         String msg = ex.getMessage() == null ? "Bad request" : ex.getMessage();
@@ -30,7 +38,8 @@ public class ApiExceptionHandler {
         // dentro handle IllegalArgumentException / illegalArg
         if ("Invalid credentials".equalsIgnoreCase(msg)) {
             status = HttpStatus.UNAUTHORIZED;
-        } else if ("Email already registered".equalsIgnoreCase(msg)) {
+        } else if ("Email already registered".equalsIgnoreCase(msg)
+                || "Idempotency-Key already used for a different request".equalsIgnoreCase(msg)) {
             status = HttpStatus.CONFLICT;
         } else if ("User not found".equalsIgnoreCase(msg)) {
             status = HttpStatus.NOT_FOUND;
@@ -1,5 +1,6 @@
 package com.example.backend.api.auth;
 
+import com.example.backend.core.auth.AuthService;
 import com.example.backend.core.auth.JwtTokenService;
 import com.example.backend.core.fraud.FraudService;
 import com.example.backend.core.user.UserEntity;
@@ -23,16 +24,19 @@ public class StepUpController {
 
     private final UserRepository userRepository;
     private final JwtTokenService jwtTokenService;
+    private final AuthService authService;
     private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
     private final long ttlMin;
     private final FraudService fraudService;
 
     public StepUpController(UserRepository userRepository,
                             JwtTokenService jwtTokenService,
+                            AuthService authService,
                             FraudService fraudService,
                             @Value("${vaultbank.jwt.stepup-ttl-min:5}") long ttlMin) {
         this.userRepository = userRepository;
         this.jwtTokenService = jwtTokenService;
+        this.authService = authService;
         this.fraudService = fraudService;
         this.ttlMin = ttlMin;
     }
@@ -47,7 +51,7 @@ public class StepUpController {
         Instant now = Instant.now();
 
         // se lockato -> blocco temporaneo
-        FraudService.LockStatus ls = fraudService.checkAndClearLock(uid, now);
+        FraudService.LockStatus ls = fraudService.checkLock(uid, now);
         if (ls.locked()) {
             throw new com.example.backend.api.banking.FraudExceptions.FraudBlockedException(
                     List.of("Account temporarily locked"),
@@ -69,7 +73,7 @@ public class StepUpController {
 
         // password corretta -> emetti token step-up
         Instant exp = now.plus(ttlMin, ChronoUnit.MINUTES);
-        String scope = "read write";
+        String scope = authService.scopeFor(user);
 
         String token = jwtTokenService.issueAccessToken(
                 user.getId().toString(),
@@ -1,5 +1,6 @@
 package com.example.backend.api.banking;
 
+import com.example.backend.core.banking.BalanceCodec;
 import com.example.backend.core.crypto.CryptoService;
 import com.example.backend.core.user.UserEntity;
 import com.example.backend.core.user.UserRepository;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,10 +20,12 @@ public class MeController {
 
     private final UserRepository userRepository;
     private final CryptoService cryptoService;
+    private final BalanceCodec balanceCodec;
 
-    public MeController(UserRepository userRepository, CryptoService cryptoService) {
+    public MeController(UserRepository userRepository, CryptoService cryptoService, BalanceCodec balanceCodec) {
         this.userRepository = userRepository;
         this.cryptoService = cryptoService;
+        this.balanceCodec = balanceCodec;
     }
 
     public record MeResponse(
@@ -41,13 +45,19 @@ public class MeController {
         UserEntity user = userRepository.findById(UUID.fromString(uid))
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
+        List<String> fields = cryptoService.decryptFields(
+                user.getFirstNameEnc(),
+                user.getLastNameEnc(),
+                user.getPhoneEnc()
+        );
+
         return new MeResponse(
                 user.getEmail(),
-                cryptoService.decryptString(user.getFirstNameEnc()),
-                cryptoService.decryptString(user.getLastNameEnc()),
-                cryptoService.decryptString(user.getPhoneEnc()),
+                fields.get(0),
+                fields.get(1),
+                fields.get(2),
                 user.getIban(),
-                cryptoService.decryptBigDecimal(user.getBalanceEnc())
+                BalanceCodec.fromCents(balanceCodec.readCents(user))
         );
     }
 }
\ No newline at end of file
@@ -1,21 +1,34 @@
 package com.example.backend.api.banking;
 
 import com.example.backend.core.banking.BankingService;
+import com.example.backend.core.banking.StatementExporter;
+import com.example.backend.core.banking.TransferIdempotency;
+import com.example.backend.core.banking.TransferRouter;
+import com.example.backend.core.beneficiary.BeneficiaryService;
 import com.example.backend.core.fraud.FraudDecision;
 import com.example.backend.core.fraud.FraudService;
+import com.example.backend.core.summary.SummaryService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,12 +36,30 @@ import java.util.UUID;
 @RequestMapping("/api/banking")
 public class TransferController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BankingService bankingService;
+    private final TransferRouter transferRouter;
+    private final TransferIdempotency transferIdempotency;
+    private final StatementExporter statementExporter;
+    private final SummaryService summaryService;
     private final FraudService fraudService;
+    private final BeneficiaryService beneficiaryService;
 
-    public TransferController(BankingService bankingService, FraudService fraudService) {
+    public TransferController(BankingService bankingService,
+                              TransferRouter transferRouter,
+                              TransferIdempotency transferIdempotency,
+                              StatementExporter statementExporter,
+                              SummaryService summaryService,
+                              FraudService fraudService,
+                              BeneficiaryService beneficiaryService) {
         this.bankingService = bankingService;
+        this.transferRouter = transferRouter;
+        this.transferIdempotency = transferIdempotency;
+        this.statementExporter = statementExporter;
+        this.summaryService = summaryService;
         this.fraudService = fraudService;
+        this.beneficiaryService = beneficiaryService;
     }
 
     public record TransferRequest(
@@ -47,25 +78,53 @@ public class TransferController {
 
     public record TransferResponse(UUID id, Instant createdAt, BigDecimal newBalance) {}
 
+    public enum BatchMode { ALL_OR_NOTHING, BEST_EFFORT }
+
+    public record BatchTransferRequest(
+            BatchMode mode, // default ALL_OR_NOTHING
+
+            @NotEmpty
+            @Size(max = 500, message = "Max 500 transfers per batch")
+            List<@Valid TransferRequest> items
+    ) {}
+
+    public record BalanceAtResponse(Instant at, BigDecimal balance) {}
+
+    public record BatchTransferResponse(BatchMode mode, int executed, int rejected, List<BankingService.BatchItemResult> items) {}
+
     @PostMapping("/transfer")
     @PreAuthorize("hasAuthority('SCOPE_write')")
-    public TransferResponse transfer(@Valid @RequestBody TransferRequest req, Authentication authentication) {
+    public TransferResponse transfer(@Valid @RequestBody TransferRequest req,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                     Authentication authentication) {
 
         Jwt jwt = (Jwt) authentication.getPrincipal();
         UUID uid = UUID.fromString(jwt.getClaimAsString("uid"));
-        Instant now = Instant.now();
 
-        // 0) se già lockato -> blocco temporaneo
-        FraudService.LockStatus ls = fraudService.checkAndClearLock(uid, now);
-        if (ls.locked()) {
-            throw new FraudExceptions.FraudBlockedException(
-                    List.of("Account temporarily locked"),
-                    ls.lockedUntil()
-            );
+        BankingService.TransferResult result;
+        if (idempotencyKey == null) {
+            result = executeTransfer(jwt, uid, new BankingService.TransferCommand(uid, req.toIban(), req.amount(), req.causal()));
+        } else {
+            // Retry con la stessa chiave -> stesso esito, senza rifare fraud check, lock e cifratura
+            TransferIdempotency.validateKey(idempotencyKey);
+            BankingService.Idempotency idem = new BankingService.Idempotency(idempotencyKey,
+                    TransferIdempotency.requestHash(req.toIban(), req.amount(), req.causal()));
+            BankingService.TransferCommand command =
+                    new BankingService.TransferCommand(uid, req.toIban(), req.amount(), req.causal(), idem);
+            result = transferIdempotency.execute(uid, idem, () -> executeTransfer(jwt, uid, command));
         }
 
-        // 1) Valuta rischio
-        FraudDecision decision = fraudService.evaluate(uid, req.toIban(), req.amount(), now);
+        return new TransferResponse(result.transferId(), result.createdAt(), result.newBalance());
+    }
+
+    private BankingService.TransferResult executeTransfer(Jwt jwt, UUID uid, BankingService.TransferCommand command) {
+        Instant now = Instant.now();
+
+        // 1) Valuta rischio (stesse feature del lock check: se già lockato -> blocco temporaneo)
+        FraudDecision decision = fraudService.evaluate(uid, command.toIban(), command.amount(), now);
+        if (decision.lockedUntil() != null) {
+            throw new FraudExceptions.FraudBlockedException(decision.reasons(), decision.lockedUntil());
+        }
 
         boolean hasStepUp = Boolean.TRUE.equals(jwt.getClaimAsBoolean("stepup"));
 
@@ -75,25 +134,164 @@ public class TransferController {
         }
 
         // 2) Esegui bonifico
-        BankingService.TransferResult result =
-                bankingService.transfer(uid, req.toIban(), req.amount(), req.causal());
+        return transferRouter.transfer(command);
+    }
 
-        return new TransferResponse(result.transferId(), result.createdAt(), result.newBalance());
+    @PostMapping("/transfers/batch")
+    @PreAuthorize("hasAuthority('SCOPE_write')")
+    public BatchTransferResponse transferBatch(@Valid @RequestBody BatchTransferRequest req, Authentication authentication) {
+
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        UUID uid = UUID.fromString(jwt.getClaimAsString("uid"));
+        Instant now = Instant.now();
+        BatchMode mode = req.mode() == null ? BatchMode.ALL_OR_NOTHING : req.mode();
+        boolean allOrNothing = mode == BatchMode.ALL_OR_NOTHING;
+
+        boolean hasStepUp = Boolean.TRUE.equals(jwt.getClaimAsBoolean("stepup"));
+
+        // 1) Valuta rischio per ogni item; senza step-up gli item sospetti non vengono eseguiti
+        List<Integer> allowedIdx = new ArrayList<>();
+        List<BankingService.TransferCommand> commands = new ArrayList<>();
+        BankingService.BatchItemResult[] results = new BankingService.BatchItemResult[req.items().size()];
+        List<String> stepUpReasons = new ArrayList<>();
+
+        // gli item precedenti contano per velocity e totale, come se fossero già eseguiti
+        List<FraudDecision> decisions = fraudService.evaluateBatch(uid,
+                req.items().stream().map(i -> new FraudService.Payment(i.toIban(), i.amount())).toList(), now);
+
+        // se lockato -> blocco temporaneo per tutto il batch
+        if (decisions.get(0).lockedUntil() != null) {
+            throw new FraudExceptions.FraudBlockedException(decisions.get(0).reasons(), decisions.get(0).lockedUntil());
+        }
+
+        for (int i = 0; i < req.items().size(); i++) {
+            TransferRequest item = req.items().get(i);
+            FraudDecision decision = decisions.get(i);
+            if (decision.action() != FraudDecision.Action.ALLOW && !hasStepUp) {
+                stepUpReasons.addAll(decision.reasons());
+                results[i] = new BankingService.BatchItemResult(i, BankingService.BatchItemStatus.REJECTED,
+                        null, null, null, "Step-up required: " + String.join("; ", decision.reasons()));
+                continue;
+            }
+            allowedIdx.add(i);
+            commands.add(new BankingService.TransferCommand(uid, item.toIban(), item.amount(), item.causal()));
+        }
+
+        if (allOrNothing && !stepUpReasons.isEmpty()) {
+            throw new FraudExceptions.FraudStepUpRequiredException(stepUpReasons.stream().distinct().toList());
+        }
+
+        // 2) Esegui il batch in una sola transazione
+        List<BankingService.BatchItemResult> executed = commands.isEmpty()
+                ? List.of()
+                : bankingService.executeBatch(commands, allOrNothing);
+
+        for (BankingService.BatchItemResult r : executed) {
+            int idx = allowedIdx.get(r.index());
+            results[idx] = new BankingService.BatchItemResult(idx, r.status(), r.transferId(), r.createdAt(), r.newBalance(), r.error());
+        }
+
+        List<BankingService.BatchItemResult> items = List.of(results);
+        int ok = (int) items.stream().filter(r -> r.status() == BankingService.BatchItemStatus.EXECUTED).count();
+        int ko = (int) items.stream().filter(r -> r.status() == BankingService.BatchItemStatus.REJECTED).count();
+        return new BatchTransferResponse(mode, ok, ko, items);
     }
 
-    // Movimenti
+    // Movimenti: pagine a cursore, il cursore della pagina successiva è nell'header X-Next-Cursor
     @GetMapping("/movements")
     @PreAuthorize("hasAuthority('SCOPE_read')")
-    public List<BankingService.MovementItem> movements(Authentication authentication) {
+    public ResponseEntity<List<BankingService.MovementItem>> movements(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BankingService.DEFAULT_MOVEMENTS_PAGE) int limit,
+            Authentication authentication) {
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        UUID uid = UUID.fromString(jwt.getClaimAsString("uid"));
+
+        BankingService.MovementsPage page = bankingService.movements(uid, cursor, limit);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        return ok.body(page.items());
+    }
+
+    // Estratto conto completo, scritto in streaming (from/to inclusi, date ISO)
+    @GetMapping("/statement")
+    @PreAuthorize("hasAuthority('SCOPE_read')")
+    public ResponseEntity<StreamingResponseBody> statement(
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            Authentication authentication) {
         Jwt jwt = (Jwt) authentication.getPrincipal();
         UUID uid = UUID.fromString(jwt.getClaimAsString("uid"));
-        return bankingService.latestMovements(uid);
+
+        StatementExporter.Format fmt = switch (format.toLowerCase()) {
+            case "csv" -> StatementExporter.Format.CSV;
+            case "ndjson" -> StatementExporter.Format.NDJSON;
+            default -> throw new IllegalArgumentException("Format must be csv or ndjson");
+        };
+        if (to.isBefore(from)) throw new IllegalArgumentException("'to' must not be before 'from'");
+
+        Instant start = statementExporter.startOfDay(from);
+        Instant end = statementExporter.startOfDay(to.plusDays(1));
+        StreamingResponseBody body = out -> statementExporter.export(uid, start, end, fmt, out);
+
+        String filename = "statement-" + from + "_" + to + (fmt == StatementExporter.Format.CSV ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(fmt == StatementExporter.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // Totali entrate/uscite per giorno o mese, letti solo dagli aggregati
+    @GetMapping("/summary")
+    @PreAuthorize("hasAuthority('SCOPE_read')")
+    public List<SummaryService.SummaryItem> summary(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            Authentication authentication) {
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        UUID uid = UUID.fromString(jwt.getClaimAsString("uid"));
+
+        SummaryService.Granularity g = switch (granularity.toLowerCase()) {
+            case "day" -> SummaryService.Granularity.DAY;
+            case "month" -> SummaryService.Granularity.MONTH;
+            default -> throw new IllegalArgumentException("Granularity must be day or month");
+        };
+        return summaryService.summary(uid, g, from, to);
+    }
+
+    // Saldo a una certa data/ora (ISO instant), dal ledger
+    @GetMapping("/balance")
+    @PreAuthorize("hasAuthority('SCOPE_read')")
+    public BalanceAtResponse balanceAt(@RequestParam Instant at, Authentication authentication) {
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        UUID uid = UUID.fromString(jwt.getClaimAsString("uid"));
+
+        return new BalanceAtResponse(at, bankingService.balanceAt(uid, at));
+    }
+
+    // Beneficiari già usati, dal più recente, letti dalla tabella beneficiaries
+    @GetMapping("/beneficiaries")
+    @PreAuthorize("hasAuthority('SCOPE_read')")
+    public List<BeneficiaryService.BeneficiaryItem> beneficiaries(
+            @RequestParam(defaultValue = "" + BeneficiaryService.DEFAULT_PAGE) int limit,
+            Authentication authentication) {
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        UUID uid = UUID.fromString(jwt.getClaimAsString("uid"));
+
+        return beneficiaryService.list(uid, limit);
     }
 
     // Alias compatibilità
     @GetMapping("/transfers")
     @PreAuthorize("hasAuthority('SCOPE_read')")
-    public List<BankingService.MovementItem> transfers(Authentication authentication) {
-        return movements(authentication);
+    public ResponseEntity<List<BankingService.MovementItem>> transfers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BankingService.DEFAULT_MOVEMENTS_PAGE) int limit,
+            Authentication authentication) {
+        return movements(cursor, limit, authentication);
     }
 }
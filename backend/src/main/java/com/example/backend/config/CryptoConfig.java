@@ -3,16 +3,42 @@ package com.example.backend.config;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
+import com.example.backend.core.crypto.AesKeyRing;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class CryptoConfig {
 
+    /**
+     * vaultbank.crypto.aes-key-b64 is the original key (id = vaultbank.crypto.key-id).
+     * Extra keys for rotation go in vaultbank.crypto.keys.&lt;id&gt;=&lt;base64&gt;; vaultbank.crypto.active-key-id selects the one used for writes.
+     * Drop a key only after KeyRotationJob has completed the rotation to the active one.
+     */
     @Bean
-    public SecretKey aesKey(@Value("${vaultbank.crypto.aes-key-b64}") String aesKeyB64) {
+    public AesKeyRing aesKeyRing(Environment env,
+                                 @Value("${vaultbank.crypto.aes-key-b64}") String aesKeyB64,
+                                 @Value("${vaultbank.crypto.key-id:1}") int keyId,
+                                 @Value("${vaultbank.crypto.active-key-id:${vaultbank.crypto.key-id:1}}") int activeKeyId,
+                                 @Value("${vaultbank.crypto.legacy-key-id:${vaultbank.crypto.key-id:1}}") int legacyKeyId) {
+        Map<Integer, SecretKey> keys = new HashMap<>();
+        keys.put(keyId, aesKey(aesKeyB64));
+
+        Binder.get(env)
+                .bind("vaultbank.crypto.keys", Bindable.mapOf(Integer.class, String.class))
+                .ifBound(extra -> extra.forEach((id, b64) -> keys.put(id, aesKey(b64))));
+
+        return new AesKeyRing(keys, activeKeyId, legacyKeyId);
+    }
+
+    private static SecretKey aesKey(String aesKeyB64) {
         byte[] key = Base64.getDecoder().decode(aesKeyB64);
 
         // Requirement: 32 bytes (AES-256)
@@ -0,0 +1,116 @@
+package com.example.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the connections handed out at the pool size. With virtual threads thousands of requests can reach
+ * the DataSource at once: they queue here on a fair semaphore (which parks without pinning a carrier)
+ * instead of piling up inside the pool. A permit is held from getConnection() until close().
+ */
+public class JdbcConcurrencyGate extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutNanos;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public JdbcConcurrencyGate(DataSource target, int maxPermits, Duration acquireTimeout) {
+        super(target);
+        this.maxPermits = Math.max(1, maxPermits);
+        this.permits = new Semaphore(this.maxPermits, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    public int maxPermits() { return maxPermits; }
+
+    public int inUse() { return maxPermits - permits.availablePermits(); }
+
+    public int waiting() { return waiting.get(); }
+
+    public long timeouts() { return timeouts.sum(); }
+
+    public double waitSeconds() { return waitNanos.sum() / 1e9; }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) return;
+
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException("JDBC gate: no connection available within "
+                        + Duration.ofNanos(acquireTimeoutNanos).toMillis() + " ms (" + maxPermits + " in use)");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", ex);
+        } finally {
+            waiting.decrementAndGet();
+            waitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    // Releases the permit on the first close(); everything else goes straight to the pooled connection
+    private Connection gated(Connection target) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("close")) {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) permits.release();
+                        }
+                        return null;
+                    }
+                    if (name.equals("unwrap") && args[0] instanceof Class<?> type && type.isInstance(target)) return target;
+                    if (name.equals("equals")) return proxy == args[0];
+                    if (name.equals("hashCode")) return System.identityHashCode(proxy);
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+}
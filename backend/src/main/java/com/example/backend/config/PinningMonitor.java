@@ -0,0 +1,92 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams jdk.VirtualThreadPinned JFR events in-process: a virtual thread that blocks while pinned
+ * (inside synchronized on Java 21, or under a native frame) holds its carrier thread for the whole wait.
+ * Every event is counted; each distinct stack is logged once.
+ */
+@Component
+public class PinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PinningMonitor.class);
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_STACKS = 1000;
+    private static final int FRAMES = 12;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Timer pinnedTime;
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public PinningMonitor(MeterRegistry meterRegistry,
+                          @Value("${vaultbank.virtual-threads.pinning-monitor.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                          @Value("${vaultbank.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.pinned = Counter.builder("vaultbank.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.pinnedTime = Timer.builder("vaultbank.virtual.pinned.duration").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (!enabled) return;
+
+        RecordingStream rs = new RecordingStream();
+        rs.enable(EVENT).withThreshold(threshold).withStackTrace();
+        rs.onEvent(EVENT, this::onPinned);
+        rs.startAsync();
+        stream = rs;
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) stream.close();
+    }
+
+    private void onPinned(RecordedEvent e) {
+        pinned.increment();
+        pinnedTime.record(e.getDuration());
+
+        String stack = stack(e.getStackTrace());
+        if (seen.size() < MAX_LOGGED_STACKS && seen.add(stack)) {
+            log.warn("Virtual thread pinned for {} ms at:\n{}", e.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String stack(RecordedStackTrace trace) {
+        if (trace == null) return "(no stack trace)";
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        for (RecordedFrame f : trace.getFrames()) {
+            if (!f.isJavaFrame()) continue;
+            sb.append("    at ").append(f.getMethod().getType().getName()).append('.').append(f.getMethod().getName())
+                    .append(':').append(f.getLineNumber()).append('\n');
+            if (++n == FRAMES) break;
+        }
+        return sb.toString();
+    }
+}
@@ -16,17 +16,19 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     /**
-     * Protect ONLY banking APIs with JWT.
+     * Protect ONLY banking APIs (and the fraud rules endpoint, admin scope) with JWT.
      * Auth endpoints remain public because they do not match this securityMatcher.
      */
     @Bean
     public SecurityFilterChain bankingChain(HttpSecurity http) throws Exception {
         http
-                .securityMatcher("/api/banking/**", "/api/auth/stepup")
+                .securityMatcher("/api/banking/**", "/api/auth/stepup", "/actuator/fraudrules/**", "/actuator/fraudrules")
 
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/**").hasAuthority("SCOPE_admin")
+                        .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
                 );
@@ -0,0 +1,29 @@
+package com.example.backend.config;
+
+import com.example.backend.core.settlement.FileSettlementGateway;
+import com.example.backend.core.settlement.InMemorySettlementGateway;
+import com.example.backend.core.settlement.SettlementGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+
+@Configuration
+public class SettlementConfig {
+
+    // Stand-in until a real gateway exists: memory (default, tests) or an NDJSON file
+    @Bean
+    public SettlementGateway settlementGateway(
+            @Value("${vaultbank.settlement.gateway:memory}") String type,
+            @Value("${vaultbank.settlement.file:./data/settlement.ndjson}") String file,
+            @Value("${vaultbank.settlement.memory.retained:10000}") int retained,
+            JsonMapper jsonMapper) {
+        return switch (type) {
+            case "memory" -> new InMemorySettlementGateway(retained);
+            case "file" -> new FileSettlementGateway(Path.of(file), jsonMapper);
+            default -> throw new IllegalStateException("Unknown vaultbank.settlement.gateway: " + type);
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual threads are opt-in: spring.threads.virtual.enabled=true makes Spring Boot run Tomcat requests
+ * and the application task executor (async MVC, statement streaming) on virtual threads.
+ * With it, the DataSource is wrapped in a {@link JdbcConcurrencyGate} (vaultbank.jdbc.gate.*) and
+ * {@link PinningMonitor} reports pinned virtual threads.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyGatePostProcessor(Environment env) {
+        boolean virtual = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean enabled = env.getProperty("vaultbank.jdbc.gate.enabled", Boolean.class, virtual);
+        int permits = env.getProperty("vaultbank.jdbc.gate.permits", Integer.class, 0);
+        Duration timeout = env.getProperty("vaultbank.jdbc.gate.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource ds) || bean instanceof JdbcConcurrencyGate) return bean;
+
+                // 0 = as many as the pool can hand out
+                int max = permits > 0 ? permits : ds instanceof HikariDataSource h ? h.getMaximumPoolSize() : 10;
+                return new JdbcConcurrencyGate(ds, max, timeout);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder jdbcConcurrencyGateMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof JdbcConcurrencyGate gate)) return;
+
+            Gauge.builder("vaultbank.jdbc.gate.in-use", gate, JdbcConcurrencyGate::inUse).register(registry);
+            Gauge.builder("vaultbank.jdbc.gate.waiting", gate, JdbcConcurrencyGate::waiting).register(registry);
+            Gauge.builder("vaultbank.jdbc.gate.max", gate, JdbcConcurrencyGate::maxPermits).register(registry);
+            FunctionCounter.builder("vaultbank.jdbc.gate.timeouts", gate, JdbcConcurrencyGate::timeouts).register(registry);
+            FunctionCounter.builder("vaultbank.jdbc.gate.wait.seconds", gate, JdbcConcurrencyGate::waitSeconds)
+                    .description("Total time spent waiting for a permit")
+                    .register(registry);
+        };
+    }
+}
@@ -1,16 +1,21 @@
 package com.example.backend.core.auth;
 
+import com.example.backend.core.banking.BalanceCodec;
+import com.example.backend.core.banking.IbanDirectory;
 import com.example.backend.core.banking.IbanGenerator;
 import com.example.backend.core.crypto.CryptoService;
+import com.example.backend.core.fraud.FraudFeatureLoader;
 import com.example.backend.core.user.UserEntity;
 import com.example.backend.core.user.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class AuthService {
@@ -20,18 +25,31 @@ public class AuthService {
     private final JwtTokenService jwtTokenService;
     private final CryptoService cryptoService;
     private final IbanGenerator ibanGenerator;
+    private final IbanDirectory ibanDirectory;
+    private final BalanceCodec balanceCodec;
+    private final FraudFeatureLoader fraudFeatureLoader;
     private final long ttlMin;
+    private final Set<String> adminEmails;
 
     public AuthService(UserRepository userRepository,
                        JwtTokenService jwtTokenService,
                        CryptoService cryptoService,
                        IbanGenerator ibanGenerator,
-                       @Value("${vaultbank.jwt.ttl-min:30}") long ttlMin) {
+                       IbanDirectory ibanDirectory,
+                       BalanceCodec balanceCodec,
+                       FraudFeatureLoader fraudFeatureLoader,
+                       @Value("${vaultbank.jwt.ttl-min:30}") long ttlMin,
+                       @Value("${vaultbank.admin.emails:}") List<String> adminEmails) {
         this.userRepository = userRepository;
         this.jwtTokenService = jwtTokenService;
         this.cryptoService = cryptoService;
         this.ibanGenerator = ibanGenerator;
+        this.ibanDirectory = ibanDirectory;
+        this.balanceCodec = balanceCodec;
+        this.fraudFeatureLoader = fraudFeatureLoader;
         this.ttlMin = ttlMin;
+        this.adminEmails = adminEmails.stream().map(String::trim).filter(e -> !e.isEmpty())
+                .map(String::toLowerCase).collect(Collectors.toUnmodifiableSet());
     }
 
     public void register(String email, String rawPassword, String firstName, String lastName, String phone) {
@@ -47,12 +65,17 @@ public class AuthService {
         user.setLastNameEnc(cryptoService.encryptString(lastName));
         user.setPhoneEnc(cryptoService.encryptString(phone));
 
-        user.setIban(ibanGenerator.generateItalianIban());
+        // uk_users_iban is the real guarantee; this just avoids a failed insert on a (rare) known collision
+        String iban = ibanGenerator.generateItalianIban();
+        for (int i = 0; i < 5 && ibanDirectory.mightExist(iban); i++) iban = ibanGenerator.generateItalianIban();
+        user.setIban(iban);
 
-        BigDecimal initialBalance = new BigDecimal("1000.00");
-        user.setBalanceEnc(cryptoService.encryptBigDecimal(initialBalance));
+        long initialBalanceCents = 1000_00L; // 1000.00
+        balanceCodec.writeCents(user, initialBalanceCents);
 
         userRepository.save(user);
+        ibanDirectory.add(iban, user.getId());
+        fraudFeatureLoader.registered(user.getId(), user.getCreatedAt());
     }
 
     public TokenResult login(String email, String rawPassword) {
@@ -63,7 +86,7 @@ public class AuthService {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
-        String scope = "read write";
+        String scope = scopeFor(user);
         Instant now = Instant.now();
         Instant exp = now.plus(ttlMin, ChronoUnit.MINUTES);
 
@@ -73,5 +96,13 @@ public class AuthService {
         return new TokenResult(token, expiresSec, scope);
     }
 
+    /**
+     * Scopes granted to the user's tokens: "read write", plus "admin" (fraud rules endpoint) for the
+     * accounts listed in vaultbank.admin.emails.
+     */
+    public String scopeFor(UserEntity user) {
+        return adminEmails.contains(user.getEmail().toLowerCase()) ? "read write admin" : "read write";
+    }
+
     public record TokenResult(String token, long expiresInSeconds, String scope) {}
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.backend.core.background;
+
+/**
+ * Work that runs on daemon threads of its own, outside any request: migrations, backfills, sweepers,
+ * queue consumers. {@link BackgroundJobs} starts the enabled ones once the application is ready and
+ * stops them when the context closes.
+ */
+public interface BackgroundJob {
+
+    /**
+     * Thread name, also the key of {@link BackgroundJobs#isRunning}.
+     */
+    String name();
+
+    /**
+     * Whether to start at boot; a disabled job can still be started with {@link BackgroundJobs#start}.
+     */
+    boolean enabled();
+
+    /**
+     * Threads running {@link #run} side by side.
+     */
+    default int threads() {
+        return 1;
+    }
+
+    /**
+     * Returns when the work is done or once {@link BackgroundJobs.Worker#stopRequested()}.
+     * An exception ends this thread of the job and is logged.
+     */
+    void run(BackgroundJobs.Worker worker) throws InterruptedException;
+}
@@ -0,0 +1,143 @@
+package com.example.backend.core.background;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every {@link BackgroundJob} bean: the enabled ones start on ApplicationReadyEvent, each on its own
+ * daemon threads, and all of them are interrupted and awaited (up to 5s) when the context stops,
+ * before any bean they use is destroyed.
+ */
+@Component
+public class BackgroundJobs implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BackgroundJobs.class);
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ObjectProvider<BackgroundJob> jobs;
+    private final ConcurrentHashMap<String, Worker> workers = new ConcurrentHashMap<>();
+    private volatile boolean active = true;
+
+    public BackgroundJobs(ObjectProvider<BackgroundJob> jobs) {
+        this.jobs = jobs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        jobs.orderedStream().filter(BackgroundJob::enabled).forEach(this::start);
+    }
+
+    /**
+     * @return false if the job is already running or the context is stopping
+     */
+    public boolean start(BackgroundJob job) {
+        if (!active) return false;
+        Worker w = new Worker(job);
+        if (workers.putIfAbsent(job.name(), w) != null) return false;
+        w.start();
+        return true;
+    }
+
+    public boolean isRunning(String name) {
+        return workers.containsKey(name);
+    }
+
+    @Override
+    public void start() {
+        active = true;
+    }
+
+    @Override
+    public void stop() {
+        active = false;
+        List<Worker> stopping = new ArrayList<>(workers.values());
+        stopping.forEach(Worker::requestStop);
+
+        long deadline = System.nanoTime() + STOP_TIMEOUT.toNanos();
+        try {
+            for (Worker w : stopping) w.await(deadline);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return active;
+    }
+
+    /**
+     * The running job's view of its threads.
+     */
+    public final class Worker {
+
+        private final BackgroundJob job;
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger alive = new AtomicInteger();
+        private volatile boolean stopRequested;
+
+        private Worker(BackgroundJob job) {
+            this.job = job;
+        }
+
+        public boolean stopRequested() {
+            return stopRequested;
+        }
+
+        /**
+         * Sleeps as needed to keep {@code done} units since {@code startNanos} within {@code perSecond}.
+         */
+        public void pace(long startNanos, long done, int perSecond) throws InterruptedException {
+            long aheadNanos = done * 1_000_000_000L / perSecond - (System.nanoTime() - startNanos);
+            if (aheadNanos > 0) Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+        }
+
+        private void start() {
+            int n = Math.max(1, job.threads());
+            for (int i = 1; i <= n; i++) {
+                Thread t = new Thread(this::runOne, n == 1 ? job.name() : job.name() + "-" + i);
+                t.setDaemon(true);
+                threads.add(t);
+            }
+            alive.set(n);
+            threads.forEach(Thread::start);
+        }
+
+        private void runOne() {
+            try {
+                job.run(this);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.error("Background job {} failed", job.name(), ex);
+            } finally {
+                if (alive.decrementAndGet() == 0) workers.remove(job.name(), this);
+            }
+        }
+
+        private void requestStop() {
+            stopRequested = true;
+            threads.forEach(Thread::interrupt);
+        }
+
+        private void await(long deadlineNanos) throws InterruptedException {
+            for (Thread t : threads) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) return;
+                t.join(Duration.ofNanos(remaining));
+            }
+        }
+    }
+}
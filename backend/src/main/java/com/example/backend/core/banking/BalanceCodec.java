@@ -0,0 +1,68 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.crypto.CryptoService;
+import com.example.backend.core.user.UserEntity;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Account balance as an AES-GCM envelope of a big-endian 8-byte long of cents (38 bytes total).
+ * Rows not migrated yet still carry the legacy encrypted BigDecimal string in balance_enc.
+ */
+@Component
+public class BalanceCodec {
+
+    public static final int ENCODED_LEN = 38; // version + key id + iv(12) + long(8) + tag(16)
+
+    private final CryptoService cryptoService;
+
+    public BalanceCodec(CryptoService cryptoService) {
+        this.cryptoService = cryptoService;
+    }
+
+    public byte[] encrypt(long cents) {
+        byte[] plain = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            plain[i] = (byte) cents;
+            cents >>>= 8;
+        }
+        return cryptoService.seal(plain);
+    }
+
+    public long decrypt(byte[] stored) {
+        byte[] plain = cryptoService.open(stored);
+        if (plain.length != Long.BYTES) throw new IllegalStateException("Invalid balance encoding");
+
+        long cents = 0;
+        for (byte b : plain) cents = (cents << 8) | (b & 0xFF);
+        return cents;
+    }
+
+    public long readCents(UserEntity u) {
+        if (u.getBalanceCentsEnc() != null) return decrypt(u.getBalanceCentsEnc());
+
+        // Not migrated yet
+        BigDecimal legacy = cryptoService.decryptBigDecimal(u.getBalanceEnc());
+        if (legacy == null) throw new IllegalStateException("Balance not initialized");
+        return toCents(legacy);
+    }
+
+    public void writeCents(UserEntity u, long cents) {
+        u.setBalanceCentsEnc(encrypt(cents));
+        u.setBalanceEnc(null);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount too large");
+        }
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
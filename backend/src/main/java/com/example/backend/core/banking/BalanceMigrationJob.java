@@ -0,0 +1,101 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import com.example.backend.core.crypto.CryptoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Converts legacy balance_enc (encrypted BigDecimal string) rows to balance_cents_enc.
+ * Rows are also migrated lazily by every transfer that writes them; this job handles the idle ones.
+ * The "balance_enc is not null" filter is the checkpoint: a restart (or a failed run) only sees rows still to migrate.
+ */
+@Component
+public class BalanceMigrationJob implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceMigrationJob.class);
+
+    private record Row(UUID id, String balanceEnc) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CryptoService cryptoService;
+    private final BalanceCodec balanceCodec;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int rowsPerSecond;
+    private final Counter migratedCounter;
+
+    public BalanceMigrationJob(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               CryptoService cryptoService,
+                               BalanceCodec balanceCodec,
+                               MeterRegistry meterRegistry,
+                               @Value("${vaultbank.balance.migration.enabled:true}") boolean enabled,
+                               @Value("${vaultbank.balance.migration.chunk-size:500}") int chunkSize,
+                               @Value("${vaultbank.balance.migration.rows-per-second:5000}") int rowsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cryptoService = cryptoService;
+        this.balanceCodec = balanceCodec;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.rowsPerSecond = Math.max(1, rowsPerSecond);
+        this.migratedCounter = Counter.builder("vaultbank.balance.migration.rows").register(meterRegistry);
+    }
+
+    @Override
+    public String name() { return "balance-migration"; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        UUID after = null;
+        long migrated = 0;
+        long scanned = 0;
+        long startNanos = System.nanoTime();
+
+        while (!worker.stopRequested()) {
+            List<Row> rows = after == null
+                    ? jdbcTemplate.query("select id, balance_enc from users where balance_enc is not null order by id limit ?",
+                        (rs, i) -> new Row(rs.getObject("id", UUID.class), rs.getString("balance_enc")), chunkSize)
+                    : jdbcTemplate.query("select id, balance_enc from users where balance_enc is not null and id > ? order by id limit ?",
+                        (rs, i) -> new Row(rs.getObject("id", UUID.class), rs.getString("balance_enc")), after, chunkSize);
+            if (rows.isEmpty()) break;
+
+            List<Object[]> args = new ArrayList<>(rows.size());
+            for (Row r : rows) {
+                long cents = BalanceCodec.toCents(cryptoService.decryptBigDecimal(r.balanceEnc()));
+                args.add(new Object[]{balanceCodec.encrypt(cents), r.id(), r.balanceEnc()});
+            }
+
+            // A row written by a transfer meanwhile is already migrated: the CAS simply skips it
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+                    "update users set balance_cents_enc = ?, balance_enc = null, version = version + 1 where id = ? and balance_enc = ?", args));
+            int chunkMigrated = 0;
+            for (int c : counts) chunkMigrated += c > 0 ? 1 : 0;
+            migrated += chunkMigrated;
+            scanned += rows.size();
+            migratedCounter.increment(chunkMigrated);
+
+            after = rows.get(rows.size() - 1).id();
+            worker.pace(startNanos, scanned, rowsPerSecond);
+        }
+
+        if (migrated > 0) log.info("Balance migration: {} rows moved to balance_cents_enc", migrated);
+    }
+}
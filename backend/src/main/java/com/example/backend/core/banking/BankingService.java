@@ -1,10 +1,20 @@
 package com.example.backend.core.banking;
 
+import com.example.backend.core.beneficiary.BeneficiaryJournal;
 import com.example.backend.core.crypto.CryptoService;
+import com.example.backend.core.fraud.VelocityTracker;
+import com.example.backend.core.ledger.LedgerEntryEntity;
+import com.example.backend.core.ledger.LedgerEntryRepository;
+import com.example.backend.core.ledger.LedgerJournal;
+import com.example.backend.core.settlement.SettlementOutbox;
+import com.example.backend.core.summary.AccountTotalsJournal;
 import com.example.backend.core.transfer.TransferEntity;
+import com.example.backend.core.transfer.TransferIdempotencyStore;
+import com.example.backend.core.transfer.TransferJournal;
 import com.example.backend.core.transfer.TransferRepository;
 import com.example.backend.core.user.UserEntity;
 import com.example.backend.core.user.UserRepository;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,111 +28,369 @@ import java.util.stream.Collectors;
 @Service
 public class BankingService {
 
+    public static final int DEFAULT_MOVEMENTS_PAGE = 10;
+    public static final int MAX_MOVEMENTS_PAGE = 100;
+
     private final UserRepository userRepository;
     private final TransferRepository transferRepository;
+    private final TransferJournal transferJournal;
+    private final TransferIdempotencyStore idempotencyStore;
+    private final LedgerJournal ledgerJournal;
+    private final LedgerEntryRepository ledgerRepository;
+    private final AccountTotalsJournal accountTotalsJournal;
+    private final SettlementOutbox settlementOutbox;
     private final CryptoService cryptoService;
+    private final DisplayNameCache displayNameCache;
+    private final BalanceCodec balanceCodec;
+    private final IbanDirectory ibanDirectory;
+    private final VelocityTracker velocityTracker;
+    private final BeneficiaryJournal beneficiaryJournal;
 
     public BankingService(UserRepository userRepository,
                           TransferRepository transferRepository,
-                          CryptoService cryptoService) {
+                          TransferJournal transferJournal,
+                          TransferIdempotencyStore idempotencyStore,
+                          LedgerJournal ledgerJournal,
+                          LedgerEntryRepository ledgerRepository,
+                          AccountTotalsJournal accountTotalsJournal,
+                          SettlementOutbox settlementOutbox,
+                          CryptoService cryptoService,
+                          DisplayNameCache displayNameCache,
+                          BalanceCodec balanceCodec,
+                          IbanDirectory ibanDirectory,
+                          VelocityTracker velocityTracker,
+                          BeneficiaryJournal beneficiaryJournal) {
         this.userRepository = userRepository;
         this.transferRepository = transferRepository;
+        this.transferJournal = transferJournal;
+        this.idempotencyStore = idempotencyStore;
+        this.ledgerJournal = ledgerJournal;
+        this.ledgerRepository = ledgerRepository;
+        this.accountTotalsJournal = accountTotalsJournal;
+        this.settlementOutbox = settlementOutbox;
         this.cryptoService = cryptoService;
+        this.displayNameCache = displayNameCache;
+        this.balanceCodec = balanceCodec;
+        this.ibanDirectory = ibanDirectory;
+        this.velocityTracker = velocityTracker;
+        this.beneficiaryJournal = beneficiaryJournal;
     }
 
     @Transactional
     public TransferResult transfer(UUID fromUserId, String toIban, BigDecimal amount, String causal) {
-        BigDecimal normalized = normalizeAmount(amount);
+        return transfer(new TransferCommand(fromUserId, toIban, amount, causal));
+    }
+
+    @Transactional
+    public TransferResult transfer(TransferCommand command) {
+        return execute(command, true);
+    }
 
-        // Load sender (lock)
-        UserEntity sender = userRepository.findByIdForUpdate(fromUserId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    /**
+     * Same as {@link #transfer(TransferCommand)} without row locks: the balances are written with a version check
+     * (flushed before anything else is inserted), so a concurrent write to either account makes this transaction
+     * fail with an OptimisticLockingFailureException and roll back. Retrying is up to the caller.
+     */
+    @Transactional
+    public TransferResult transferOptimistic(TransferCommand command) {
+        return execute(command, false);
+    }
+
+    private TransferResult execute(TransferCommand command, boolean lockRows) {
+        UUID fromUserId = command.fromUserId();
+        String toIban = command.toIban();
+        BigDecimal normalized = normalizeAmount(command.amount());
+        long amountCents = BalanceCodec.toCents(normalized);
+
+        // One round trip: sender + recipient (if it is one of our accounts), locked in id order.
+        // Known external IBAN: only the sender, by primary key
+        boolean external = ibanDirectory.isExternal(toIban);
+        List<UserEntity> parties;
+        if (lockRows) {
+            parties = external
+                    ? userRepository.findByIdForUpdate(fromUserId).map(List::of).orElse(List.of())
+                    : userRepository.lockTransferParties(fromUserId, toIban);
+        } else {
+            parties = external
+                    ? userRepository.findById(fromUserId).map(List::of).orElse(List.of())
+                    : userRepository.findTransferParties(fromUserId, toIban);
+        }
+        UserEntity sender = null;
+        UserEntity recipient = null;
+        for (UserEntity u : parties) {
+            if (u.getId().equals(fromUserId)) sender = u;
+            else recipient = u;
+        }
+        if (sender == null) throw new IllegalArgumentException("User not found");
 
         if (sender.getIban() != null && sender.getIban().equalsIgnoreCase(toIban)) {
             throw new IllegalArgumentException("Cannot transfer to your own IBAN");
         }
 
-        // Check if recipient exists in our DB (internal transfer)
-        Optional<UserEntity> recipientOpt = userRepository.findByIban(toIban);
-
-        UUID toUserId = recipientOpt.map(UserEntity::getId).orElse(null);
-
-        if (toUserId != null) {
-            // Lock both users in stable order to avoid deadlocks
-            UUID a = fromUserId.compareTo(toUserId) <= 0 ? fromUserId : toUserId;
-            UUID b = fromUserId.compareTo(toUserId) <= 0 ? toUserId : fromUserId;
+        long senderBalance = balanceCodec.readCents(sender);
+        if (senderBalance < amountCents) throw new IllegalArgumentException("Insufficient funds");
 
-            UserEntity first = userRepository.findByIdForUpdate(a).orElseThrow(() -> new IllegalArgumentException("User not found"));
-            UserEntity second = userRepository.findByIdForUpdate(b).orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-            UserEntity lockedSender = fromUserId.equals(first.getId()) ? first : second;
-            UserEntity lockedRecipient = toUserId.equals(first.getId()) ? first : second;
+        long newSenderBalance = debit(senderBalance, amountCents);
+        balanceCodec.writeCents(sender, newSenderBalance);
+        userRepository.save(sender);
 
-            BigDecimal senderBalance = requireBalance(lockedSender);
-            if (senderBalance.compareTo(normalized) < 0) throw new IllegalArgumentException("Insufficient funds");
+        // Internal transfer: credit recipient. External (recipient == null): debit sender only
+        long newRecipientBalance = 0;
+        if (recipient != null) {
+            newRecipientBalance = credit(balanceCodec.readCents(recipient), amountCents);
+            balanceCodec.writeCents(recipient, newRecipientBalance);
+            userRepository.save(recipient);
+        }
 
-            BigDecimal recipientBalance = requireBalance(lockedRecipient);
+        UUID toUserId = recipient != null ? recipient.getId() : null;
+        TransferEntity t = TransferEntity.create(fromUserId, toUserId, sender.getIban(), toIban, normalizeCausal(command.causal()), normalized);
+
+        List<LedgerEntryEntity> postings = new ArrayList<>(2);
+        Map<UUID, Long> ledgerSeqs = new HashMap<>(4);
+        post(postings, ledgerSeqs, sender, t, LedgerEntryEntity.Direction.OUT, newSenderBalance);
+        if (recipient != null) post(postings, ledgerSeqs, recipient, t, LedgerEntryEntity.Direction.IN, newRecipientBalance);
+        sender.setLedgerSeq(ledgerSeqs.getOrDefault(sender.getId(), sender.getLedgerSeq()));
+        if (recipient != null) recipient.setLedgerSeq(ledgerSeqs.getOrDefault(recipient.getId(), recipient.getLedgerSeq()));
+
+        // Unlocked read: the versioned UPDATEs go first, so a conflict surfaces as a version mismatch
+        // (not as a duplicate ledger seq) and the row locks are only held from here to the commit
+        if (!lockRows) userRepository.flush();
+
+        transferJournal.append(List.of(t));
+        settlementOutbox.enqueueExternal(List.of(t));
+        accountTotalsJournal.record(List.of(t));
+        velocityTracker.recordAfterCommit(List.of(t));
+        beneficiaryJournal.record(List.of(t));
+        ledgerJournal.append(postings);
+        if (command.idempotency() != null) {
+            idempotencyStore.insert(List.of(idempotencyEntry(command, t, newSenderBalance)));
+        }
 
-            BigDecimal newSenderBalance = senderBalance.subtract(normalized).setScale(2, RoundingMode.HALF_UP);
-            BigDecimal newRecipientBalance = recipientBalance.add(normalized).setScale(2, RoundingMode.HALF_UP);
+        return new TransferResult(t.getId(), t.getCreatedAt(), BalanceCodec.fromCents(newSenderBalance));
+    }
 
-            lockedSender.setBalanceEnc(cryptoService.encryptBigDecimal(newSenderBalance));
-            lockedRecipient.setBalanceEnc(cryptoService.encryptBigDecimal(newRecipientBalance));
+    /**
+     * Executes many transfers in one transaction. Every account involved is locked once, in id order,
+     * all debits/credits are applied in memory (request order) and each touched balance is encrypted and written once.
+     * With allOrNothing, a single rejected item rolls back the whole batch (nothing is written).
+     */
+    @Transactional
+    public List<BatchItemResult> executeBatch(List<TransferCommand> commands, boolean allOrNothing) {
+        int n = commands.size();
+        BatchItemResult[] results = new BatchItemResult[n];
+        long[] amountCents = new long[n];
+        BigDecimal[] amounts = new BigDecimal[n];
+        String[] causals = new String[n];
+
+        // 1) Validate everything up front
+        Set<UUID> senderIds = new HashSet<>();
+        Set<String> ibans = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            TransferCommand c = commands.get(i);
+            try {
+                amounts[i] = normalizeAmount(c.amount());
+                amountCents[i] = BalanceCodec.toCents(amounts[i]);
+                causals[i] = normalizeCausal(c.causal());
+                if (c.toIban() == null || c.toIban().isBlank()) throw new IllegalArgumentException("IBAN is required");
+                senderIds.add(c.fromUserId());
+                ibans.add(c.toIban());
+            } catch (IllegalArgumentException ex) {
+                results[i] = BatchItemResult.rejected(i, ex);
+            }
+        }
+        if (senderIds.isEmpty() || (allOrNothing && hasRejected(results))) return finish(results);
+
+        // 2) Lock all accounts once, deadlock-free order (known external IBANs are not looked up)
+        ibans.removeIf(ibanDirectory::isExternal);
+        List<UserEntity> accounts = ibans.isEmpty()
+                ? userRepository.lockByIds(senderIds)
+                : userRepository.lockAccounts(senderIds, ibans);
+        Map<UUID, UserEntity> byId = new HashMap<>();
+        Map<String, UserEntity> byIban = new HashMap<>();
+        for (UserEntity u : accounts) {
+            byId.put(u.getId(), u);
+            if (u.getIban() != null) byIban.put(u.getIban(), u);
+        }
 
-            userRepository.save(lockedSender);
-            userRepository.save(lockedRecipient);
+        // 3) Apply in memory, in request order
+        Map<UUID, Long> balances = new HashMap<>();
+        List<TransferEntity> transfers = new ArrayList<>();
+        List<TransferIdempotencyStore.Entry> keys = new ArrayList<>();
+        List<LedgerEntryEntity> postings = new ArrayList<>();
+        Map<UUID, Long> ledgerSeqs = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) continue;
+            TransferCommand c = commands.get(i);
+
+            UserEntity sender = byId.get(c.fromUserId());
+            if (sender == null) {
+                results[i] = BatchItemResult.rejected(i, new IllegalArgumentException("User not found"));
+                continue;
+            }
+            if (sender.getIban() != null && sender.getIban().equalsIgnoreCase(c.toIban())) {
+                results[i] = BatchItemResult.rejected(i, new IllegalArgumentException("Cannot transfer to your own IBAN"));
+                continue;
+            }
+
+            long senderBalance = balances.computeIfAbsent(sender.getId(), id -> balanceCodec.readCents(sender));
+            if (senderBalance < amountCents[i]) {
+                results[i] = BatchItemResult.rejected(i, new IllegalArgumentException("Insufficient funds"));
+                continue;
+            }
+
+            long newSenderBalance = debit(senderBalance, amountCents[i]);
+            balances.put(sender.getId(), newSenderBalance);
+
+            UserEntity recipient = byIban.get(c.toIban());
+            long newRecipientBalance = 0;
+            if (recipient != null) {
+                long recipientBalance = balances.computeIfAbsent(recipient.getId(), id -> balanceCodec.readCents(recipient));
+                newRecipientBalance = credit(recipientBalance, amountCents[i]);
+                balances.put(recipient.getId(), newRecipientBalance);
+            }
+
+            TransferEntity t = TransferEntity.create(sender.getId(), recipient != null ? recipient.getId() : null,
+                    sender.getIban(), c.toIban(), causals[i], amounts[i]);
+            transfers.add(t);
+            post(postings, ledgerSeqs, sender, t, LedgerEntryEntity.Direction.OUT, newSenderBalance);
+            if (recipient != null) post(postings, ledgerSeqs, recipient, t, LedgerEntryEntity.Direction.IN, newRecipientBalance);
+            if (c.idempotency() != null) keys.add(idempotencyEntry(c, t, newSenderBalance));
+            results[i] = BatchItemResult.executed(i, t, BalanceCodec.fromCents(newSenderBalance));
+        }
 
-            TransferEntity t = TransferEntity.create(fromUserId, toUserId, lockedSender.getIban(), toIban, normalizeCausal(causal), normalized);
-            transferRepository.save(t);
+        if (allOrNothing && hasRejected(results)) return finish(results);
+
+        // 4) Persist: one encrypted balance write per touched account, one JDBC batch for the transfers
+        List<UserEntity> touched = new ArrayList<>(balances.size());
+        balances.forEach((id, cents) -> {
+            UserEntity u = byId.get(id);
+            balanceCodec.writeCents(u, cents);
+            if (ledgerSeqs.containsKey(id)) u.setLedgerSeq(ledgerSeqs.get(id));
+            touched.add(u);
+        });
+        userRepository.saveAll(touched);
+        transferJournal.append(transfers);
+        settlementOutbox.enqueueExternal(transfers);
+        accountTotalsJournal.record(transfers);
+        velocityTracker.recordAfterCommit(transfers);
+        beneficiaryJournal.record(transfers);
+        ledgerJournal.append(postings);
+        idempotencyStore.insert(keys);
+
+        return Arrays.asList(results);
+    }
 
-            return new TransferResult(t.getId(), t.getCreatedAt(), newSenderBalance);
+    /**
+     * One page of movements, newest first, starting after {@code cursor} (null = most recent).
+     * Accounts with a ledger are read from ledger_entries (one range scan on (account_id, seq));
+     * the others, until backfilled, from transfers. Fetches limit + 1 rows to know whether a next page exists.
+     */
+    @Transactional(readOnly = true)
+    public MovementsPage movements(UUID userId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_MOVEMENTS_PAGE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_MOVEMENTS_PAGE);
         }
+        MovementCursor after = cursor == null || cursor.isBlank() ? MovementCursor.FIRST : MovementCursor.decode(cursor);
+        UserEntity me = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        // A keyset cursor handed out before the backfill keeps paging on transfers
+        if (me.getLedgerSeq() != null && !after.isKeyset()) {
+            List<LedgerEntryEntity> entries = ledgerRepository.findPage(userId, after.seq(), PageRequest.of(0, limit + 1));
+            String next = null;
+            if (entries.size() > limit) {
+                entries = entries.subList(0, limit);
+                next = MovementCursor.ledger(entries.get(limit - 1).getSeq()).encode();
+            }
+            return new MovementsPage(toMovementItems(me, entries.stream().map(e -> Movement.of(me, e)).toList()), next);
+        }
+        if (after != MovementCursor.FIRST && !after.isKeyset()) throw new IllegalArgumentException("Invalid cursor");
+
+        List<TransferEntity> transfers = transferRepository.findMovementsBefore(userId, after.createdAt(), after.id(), limit + 1);
+        String next = null;
+        if (transfers.size() > limit) {
+            transfers = transfers.subList(0, limit);
+            TransferEntity last = transfers.get(limit - 1);
+            next = MovementCursor.keyset(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new MovementsPage(toMovementItems(me, transfers.stream().map(Movement::of).toList()), next);
+    }
 
-        // External transfer: debit sender only
-        BigDecimal senderBalance = requireBalance(sender);
-        if (senderBalance.compareTo(normalized) < 0) throw new IllegalArgumentException("Insufficient funds");
+    /**
+     * Balance right after the last posting not later than {@code at}, from ledger_entries.balance_after_enc;
+     * before the account's first posting, the balance it started with.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(UUID userId, Instant at) {
+        UserEntity me = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (me.getLedgerSeq() == null) throw new IllegalArgumentException("Balance history not available yet");
+        if (at.isBefore(me.getCreatedAt())) throw new IllegalArgumentException("Account did not exist at that time");
+
+        Optional<LedgerEntryEntity> last = ledgerRepository.findFirstByAccountIdAndCreatedAtLessThanEqualOrderBySeqDesc(userId, at);
+        if (last.isPresent()) return BalanceCodec.fromCents(balanceCodec.decrypt(last.get().getBalanceAfterEnc()));
+
+        Optional<LedgerEntryEntity> first = ledgerRepository.findFirstByAccountIdOrderBySeqAsc(userId);
+        if (first.isEmpty()) return BalanceCodec.fromCents(balanceCodec.readCents(me));
+        LedgerEntryEntity e = first.get();
+        long after = balanceCodec.decrypt(e.getBalanceAfterEnc());
+        long amount = BalanceCodec.toCents(e.getAmount());
+        return BalanceCodec.fromCents(e.getDirection() == LedgerEntryEntity.Direction.OUT ? after + amount : after - amount);
+    }
 
-        BigDecimal newSenderBalance = senderBalance.subtract(normalized).setScale(2, RoundingMode.HALF_UP);
-        sender.setBalanceEnc(cryptoService.encryptBigDecimal(newSenderBalance));
-        userRepository.save(sender);
+    // Common shape of a movement, whether it comes from transfers or from the ledger
+    private record Movement(UUID id, UUID fromUserId, UUID toUserId, String fromIban, String toIban,
+                            BigDecimal amount, String causal, Instant createdAt) {
 
-        TransferEntity t = TransferEntity.create(fromUserId, null, sender.getIban(), toIban, normalizeCausal(causal), normalized);
-        transferRepository.save(t);
+        static Movement of(TransferEntity t) {
+            return new Movement(t.getId(), t.getFromUserId(), t.getToUserId(), t.getFromIban(), t.getToIban(),
+                    t.getAmount(), t.getCausal(), t.getCreatedAt());
+        }
 
-        return new TransferResult(t.getId(), t.getCreatedAt(), newSenderBalance);
+        static Movement of(UserEntity account, LedgerEntryEntity e) {
+            if (e.getDirection() == LedgerEntryEntity.Direction.OUT) {
+                return new Movement(e.getTransferId(), account.getId(), e.getCounterpartyId(), account.getIban(),
+                        e.getCounterpartyIban(), e.getAmount(), e.getCausal(), e.getCreatedAt());
+            }
+            return new Movement(e.getTransferId(), e.getCounterpartyId(), account.getId(), e.getCounterpartyIban(),
+                    account.getIban(), e.getAmount(), e.getCausal(), e.getCreatedAt());
+        }
     }
 
-    @Transactional(readOnly = true)
-    public List<MovementItem> latestMovements(UUID userId) {
-        List<TransferEntity> transfers = transferRepository.findLatestMovements(userId, PageRequest.of(0, 10));
+    private List<MovementItem> toMovementItems(UserEntity me, List<Movement> movements) {
+        UUID userId = me.getId();
 
-        // Load involved users in batch (avoid N+1)
-        Set<UUID> ids = transfers.stream()
-                .flatMap(t -> Arrays.stream(new UUID[]{t.getFromUserId(), t.getToUserId()}))
+        // Load the counterparties in batch (avoid N+1); the account itself is already loaded
+        Set<UUID> ids = movements.stream()
+                .flatMap(t -> Arrays.stream(new UUID[]{t.fromUserId(), t.toUserId()}))
                 .filter(Objects::nonNull)
+                .filter(id -> !id.equals(userId))
                 .collect(Collectors.toSet());
 
-        Map<UUID, UserEntity> users = userRepository.findAllById(ids).stream()
-                .collect(Collectors.toMap(UserEntity::getId, u -> u));
+        Map<UUID, UserEntity> users = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (UserEntity u : userRepository.findAllById(ids)) users.put(u.getId(), u);
+        }
+        users.put(userId, me);
+
+        Map<UUID, String> names = displayNames(users.values());
 
-        return transfers.stream().map(t -> {
-            boolean outgoing = userId.equals(t.getFromUserId());
+        return movements.stream().map(t -> {
+            boolean outgoing = userId.equals(t.fromUserId());
 
-            UserEntity fromU = users.get(t.getFromUserId());
-            UserEntity toU = t.getToUserId() != null ? users.get(t.getToUserId()) : null;
+            UserEntity fromU = users.get(t.fromUserId());
+            UserEntity toU = t.toUserId() != null ? users.get(t.toUserId()) : null;
 
-            String senderName = fromU != null ? safeName(fromU) : "Unknown";
-            String senderIban = t.getFromIban();
+            String senderName = fromU != null ? names.get(fromU.getId()) : "Unknown";
+            String senderIban = t.fromIban();
 
-            String recipientName = toU != null ? safeName(toU) : "External";
-            String recipientIban = t.getToIban();
+            String recipientName = toU != null ? names.get(toU.getId()) : "External";
+            String recipientIban = t.toIban();
 
             return new MovementItem(
-                    t.getId(),
+                    t.id(),
                     outgoing ? "OUT" : "IN",
-                    t.getAmount(),
-                    t.getCausal(),
-                    t.getCreatedAt(),
+                    t.amount(),
+                    t.causal(),
+                    t.createdAt(),
                     senderName,
                     senderIban,
                     recipientName,
@@ -131,10 +399,61 @@ public class BankingService {
         }).toList();
     }
 
-    private BigDecimal requireBalance(UserEntity u) {
-        BigDecimal b = cryptoService.decryptBigDecimal(u.getBalanceEnc());
-        if (b == null) throw new IllegalStateException("Balance not initialized");
-        return b;
+    /**
+     * Adds the posting of transfer t on account; seqs tracks each account's last seq until it is written back
+     * to users.ledger_seq (the row is locked). Accounts whose history is not backfilled yet get nothing:
+     * LedgerBackfillJob rebuilds it from transfers.
+     */
+    private void post(List<LedgerEntryEntity> out, Map<UUID, Long> seqs, UserEntity account, TransferEntity t,
+                      LedgerEntryEntity.Direction direction, long balanceAfterCents) {
+        if (account.getLedgerSeq() == null) return;
+
+        long seq = seqs.getOrDefault(account.getId(), account.getLedgerSeq()) + 1;
+        seqs.put(account.getId(), seq);
+        boolean outgoing = direction == LedgerEntryEntity.Direction.OUT;
+        out.add(LedgerEntryEntity.create(account.getId(), seq, t.getId(), direction, t.getAmount(),
+                balanceCodec.encrypt(balanceAfterCents),
+                outgoing ? t.getToUserId() : t.getFromUserId(),
+                outgoing ? t.getToIban() : t.getFromIban(),
+                t.getCausal(), t.getCreatedAt()));
+    }
+
+    private TransferIdempotencyStore.Entry idempotencyEntry(TransferCommand c, TransferEntity t, long newSenderBalance) {
+        return new TransferIdempotencyStore.Entry(t.getId(), c.fromUserId(), c.idempotency().key(),
+                c.idempotency().requestHash(), balanceCodec.encrypt(newSenderBalance), t.getCreatedAt());
+    }
+
+    private static boolean hasRejected(BatchItemResult[] results) {
+        for (BatchItemResult r : results) {
+            if (r != null && r.status() == BatchItemStatus.REJECTED) return true;
+        }
+        return false;
+    }
+
+    // All-or-nothing abort: anything not rejected is reported as not executed
+    private static List<BatchItemResult> finish(BatchItemResult[] results) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null || results[i].status() == BatchItemStatus.EXECUTED) {
+                results[i] = BatchItemResult.notExecuted(i);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private static long debit(long balanceCents, long amountCents) {
+        try {
+            return Math.subtractExact(balanceCents, amountCents);
+        } catch (ArithmeticException ex) {
+            throw new IllegalStateException("Balance overflow");
+        }
+    }
+
+    private static long credit(long balanceCents, long amountCents) {
+        try {
+            return Math.addExact(balanceCents, amountCents);
+        } catch (ArithmeticException ex) {
+            throw new IllegalStateException("Balance overflow");
+        }
     }
 
     private static BigDecimal normalizeAmount(BigDecimal amount) {
@@ -152,15 +471,81 @@ public class BankingService {
         return c;
     }
 
-    private String safeName(UserEntity u) {
-        String fn = cryptoService.decryptString(u.getFirstNameEnc());
-        String ln = cryptoService.decryptString(u.getLastNameEnc());
+    private Map<UUID, String> displayNames(Collection<UserEntity> users) {
+        Map<UUID, String> out = new HashMap<>(users.size() * 2);
+        List<UserEntity> misses = new ArrayList<>();
+        for (UserEntity u : users) {
+            String cached = displayNameCache.get(u);
+            if (cached != null) out.put(u.getId(), cached);
+            else misses.add(u);
+        }
+        if (misses.isEmpty()) return out;
+
+        // Decrypt all missing names in one batch
+        List<String> encNames = new ArrayList<>(misses.size() * 2);
+        for (UserEntity u : misses) {
+            encNames.add(u.getFirstNameEnc());
+            encNames.add(u.getLastNameEnc());
+        }
+        Map<String, String> plain = cryptoService.decryptAll(encNames);
+
+        for (UserEntity u : misses) {
+            String name = safeName(u, plain);
+            displayNameCache.put(u, name);
+            out.put(u.getId(), name);
+        }
+        return out;
+    }
+
+    private static String safeName(UserEntity u, Map<String, String> names) {
+        String fn = names.get(u.getFirstNameEnc());
+        String ln = names.get(u.getLastNameEnc());
         String s = ((fn == null ? "" : fn) + " " + (ln == null ? "" : ln)).trim();
         return s.isEmpty() ? u.getEmail() : s;
     }
 
+    public record MovementsPage(List<MovementItem> items, String nextCursor) {}
+
     public record TransferResult(UUID transferId, Instant createdAt, BigDecimal newBalance) {}
 
+    public record TransferCommand(UUID fromUserId, String toIban, BigDecimal amount, String causal, Idempotency idempotency) {
+        public TransferCommand(UUID fromUserId, String toIban, BigDecimal amount, String causal) {
+            this(fromUserId, toIban, amount, causal, null);
+        }
+    }
+
+    // Client Idempotency-Key plus a hash of the request it was first used with
+    public record Idempotency(String key, String requestHash) {}
+
+    public enum BatchItemStatus { EXECUTED, REJECTED, NOT_EXECUTED }
+
+    public record BatchItemResult(
+            int index,
+            BatchItemStatus status,
+            UUID transferId,
+            Instant createdAt,
+            BigDecimal newBalance,  // sender balance right after this item
+            String error,
+            @JsonIgnore RuntimeException failure  // what a single transfer would have thrown
+    ) {
+        public BatchItemResult(int index, BatchItemStatus status, UUID transferId, Instant createdAt, BigDecimal newBalance, String error) {
+            this(index, status, transferId, createdAt, newBalance, error, null);
+        }
+
+        static BatchItemResult executed(int index, TransferEntity t, BigDecimal newBalance) {
+            return new BatchItemResult(index, BatchItemStatus.EXECUTED, t.getId(), t.getCreatedAt(), newBalance, null);
+        }
+
+        static BatchItemResult rejected(int index, RuntimeException failure) {
+            return new BatchItemResult(index, BatchItemStatus.REJECTED, null, null, null, failure.getMessage(), failure);
+        }
+
+        static BatchItemResult notExecuted(int index) {
+            return new BatchItemResult(index, BatchItemStatus.NOT_EXECUTED, null, null, null, null,
+                    new IllegalStateException("Not executed: another item of the batch was rejected"));
+        }
+    }
+
     public record MovementItem(
             UUID id,
             String direction,       // IN / OUT
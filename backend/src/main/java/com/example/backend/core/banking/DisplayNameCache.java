@@ -0,0 +1,82 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.user.UserEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Decrypted counterparty display names, kept only in memory.
+ * Entries carry a fingerprint of the name ciphertexts: if the stored ciphertext changes
+ * (new name, key rotation) the entry no longer matches and is dropped.
+ */
+@Component
+public class DisplayNameCache {
+
+    private record Entry(long fingerprint, String name) {}
+
+    private final Cache<UUID, Entry> cache;
+    private final Counter staleEntries;
+
+    public DisplayNameCache(MeterRegistry meterRegistry,
+                            @Value("${vaultbank.names.cache.max-size:10000}") long maxSize,
+                            @Value("${vaultbank.names.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // hits / misses / evictions / size
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "displayNames");
+        this.staleEntries = Counter.builder("vaultbank.names.cache.stale")
+                .description("Cached names dropped because the ciphertext changed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the cached name, or null when absent or no longer matching the user's ciphertext
+     */
+    public String get(UserEntity u) {
+        return get(u.getId(), u.getFirstNameEnc(), u.getLastNameEnc());
+    }
+
+    /**
+     * Same as {@link #get(UserEntity)} for callers that read the name ciphertexts without loading the entity.
+     */
+    public String get(UUID userId, String firstNameEnc, String lastNameEnc) {
+        Entry e = cache.getIfPresent(userId);
+        if (e == null) return null;
+
+        if (e.fingerprint() != fingerprint(firstNameEnc, lastNameEnc)) {
+            cache.invalidate(userId);
+            staleEntries.increment();
+            return null;
+        }
+        return e.name();
+    }
+
+    public void put(UserEntity u, String name) {
+        put(u.getId(), u.getFirstNameEnc(), u.getLastNameEnc(), name);
+    }
+
+    public void put(UUID userId, String firstNameEnc, String lastNameEnc, String name) {
+        cache.put(userId, new Entry(fingerprint(firstNameEnc, lastNameEnc), name));
+    }
+
+    public void invalidate(UUID userId) {
+        cache.invalidate(userId);
+    }
+
+    private static long fingerprint(String firstNameEnc, String lastNameEnc) {
+        long fn = firstNameEnc == null ? 0 : firstNameEnc.hashCode();
+        long ln = lastNameEnc == null ? 0 : lastNameEnc.hashCode();
+        return (fn << 32) | (ln & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory IBAN -> user id index of our accounts, with a Bloom filter in front of it.
+ * Most transfers go to external IBANs: the filter answers "definitely not ours" without touching the map or the DB.
+ * Loaded at startup, updated on registration and refreshed from users.created_at for accounts created
+ * elsewhere. Until the first load completes nothing is reported as external and callers go to the DB.
+ * An account opened on another instance is missing until the next refresh, so a miss is only trusted
+ * for IBANs that do not carry our bank code.
+ */
+@Component
+public class IbanDirectory implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IbanDirectory.class);
+
+    // Rough heap cost of one map entry: node + 27-char String + UUID
+    private static final int ENTRY_BYTES = 32 + 72 + 32;
+    // created_at is set before the insert commits: re-read a window to catch late commits
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String bankCode;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration refreshInterval;
+
+    private final ConcurrentHashMap<String, UUID> ids = new ConcurrentHashMap<>();
+    private final BloomFilter bloom;
+    private volatile boolean loaded;
+    private volatile Instant watermark = Instant.EPOCH;
+
+    private final Counter bloomNegatives;
+    private final Counter bloomFalsePositives;
+    private final Counter hits;
+    private final Counter unconfirmed;
+
+    public IbanDirectory(JdbcTemplate jdbcTemplate,
+                         IbanGenerator ibanGenerator,
+                         MeterRegistry meterRegistry,
+                         @Value("${vaultbank.iban.directory.enabled:true}") boolean enabled,
+                         @Value("${vaultbank.iban.directory.expected-accounts:1000000}") long expectedAccounts,
+                         @Value("${vaultbank.iban.directory.false-positive-rate:0.01}") double falsePositiveRate,
+                         @Value("${vaultbank.iban.directory.chunk-size:5000}") int chunkSize,
+                         @Value("${vaultbank.iban.directory.refresh:10s}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.bankCode = ibanGenerator.bankCode();
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.refreshInterval = refreshInterval;
+        this.bloom = new BloomFilter(expectedAccounts, falsePositiveRate);
+
+        this.bloomNegatives = Counter.builder("vaultbank.iban.bloom.negatives")
+                .description("Lookups answered as external by the Bloom filter alone")
+                .register(meterRegistry);
+        this.bloomFalsePositives = Counter.builder("vaultbank.iban.bloom.false-positives")
+                .description("Bloom filter said maybe, the index said no")
+                .register(meterRegistry);
+        this.hits = Counter.builder("vaultbank.iban.directory.hits").register(meterRegistry);
+        this.unconfirmed = Counter.builder("vaultbank.iban.directory.unconfirmed")
+                .description("Misses with our bank code, left to the DB")
+                .register(meterRegistry);
+        meterRegistry.gauge("vaultbank.iban.directory.entries", ids, ConcurrentHashMap::size);
+    }
+
+    // Gauges on this: registered once constructed, not from the constructor
+    @PostConstruct
+    void registerGauges() {
+        meterRegistry.gauge("vaultbank.iban.bloom.bytes", this, d -> d.bloom.sizeBytes());
+        meterRegistry.gauge("vaultbank.iban.directory.bytes", this, d -> d.bloom.sizeBytes() + (double) d.ids.size() * ENTRY_BYTES);
+        meterRegistry.gauge("vaultbank.iban.bloom.expected-fpp", this, d -> d.bloom.expectedFalsePositiveRate(d.ids.size()));
+        meterRegistry.gauge("vaultbank.iban.bloom.observed-fpp", this, IbanDirectory::observedFalsePositiveRate);
+    }
+
+    @Override
+    public String name() { return "iban-directory"; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    /**
+     * True only when the IBAN is certainly not one of our accounts (no DB query needed).
+     */
+    public boolean isExternal(String iban) {
+        if (!loaded || iban == null) return false;
+
+        boolean maybe = bloom.mightContain(iban);
+        if (maybe && ids.containsKey(iban)) {
+            hits.increment();
+            return false;
+        }
+        // Possibly opened elsewhere after the last refresh: the caller's lookup decides
+        if (bankCode.equals(IbanGenerator.bankCodeOf(iban))) {
+            unconfirmed.increment();
+            return false;
+        }
+        if (maybe) bloomFalsePositives.increment();
+        else bloomNegatives.increment();
+        return true;
+    }
+
+    /**
+     * True if the IBAN may already belong to an account (registration: pick another one).
+     */
+    public boolean mightExist(String iban) {
+        return bloom.mightContain(iban) && (!loaded || ids.containsKey(iban));
+    }
+
+    /**
+     * Account id of one of our IBANs if it is in memory, else null (external or not loaded yet).
+     */
+    public UUID userId(String iban) {
+        return iban == null ? null : ids.get(iban);
+    }
+
+    public void add(String iban, UUID userId) {
+        if (iban == null) return;
+        ids.put(iban, userId);
+        bloom.add(iban);
+    }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        try {
+            long started = System.nanoTime();
+            loadAll(worker);
+            // Stopped half way: a partial index must not answer "external"
+            if (worker.stopRequested()) return;
+            loaded = true;
+            log.info("IBAN directory loaded: {} accounts in {} ms, {} KiB Bloom filter",
+                    ids.size(), (System.nanoTime() - started) / 1_000_000, bloom.sizeBytes() / 1024);
+        } catch (RuntimeException ex) {
+            log.error("IBAN directory load failed; transfers keep resolving IBANs on the DB", ex);
+            return;
+        }
+
+        while (!worker.stopRequested()) {
+            Thread.sleep(refreshInterval.toMillis());
+            try {
+                refresh();
+            } catch (RuntimeException ex) {
+                log.warn("IBAN directory refresh failed", ex);
+            }
+        }
+    }
+
+    // Keyset over the primary key: constant cost per chunk however large the table is
+    private void loadAll(BackgroundJobs.Worker worker) {
+        Instant start = Instant.now();
+        UUID after = null;
+        boolean first = true;
+        while (!worker.stopRequested()) {
+            var rows = first
+                    ? jdbcTemplate.queryForList("select id, iban from users where iban is not null order by id limit ?", chunkSize)
+                    : jdbcTemplate.queryForList("select id, iban from users where iban is not null and id > ? order by id limit ?", after, chunkSize);
+            first = false;
+            for (var r : rows) {
+                after = (UUID) r.get("id");
+                add((String) r.get("iban"), after);
+            }
+            if (rows.size() < chunkSize) break;
+        }
+        watermark = start.minus(REFRESH_OVERLAP);
+    }
+
+    private void refresh() {
+        Instant start = Instant.now();
+        jdbcTemplate.query("select id, iban from users where iban is not null and created_at >= ?",
+                (RowCallbackHandler) rs -> add(rs.getString("iban"), rs.getObject("id", UUID.class)),
+                OffsetDateTime.ofInstant(watermark, ZoneOffset.UTC));
+        watermark = start.minus(REFRESH_OVERLAP);
+    }
+
+    private double observedFalsePositiveRate() {
+        double fp = bloomFalsePositives.count();
+        double negatives = bloomNegatives.count() + fp;
+        return negatives == 0 ? 0 : fp / negatives;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.core.banking;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
@@ -9,8 +10,29 @@ public class IbanGenerator {
 
     private static final SecureRandom RND = new SecureRandom();
 
+    private final String bankCode;
+
+    public IbanGenerator(@Value("${vaultbank.iban.bank-code:99999}") String bankCode) {
+        if (!bankCode.matches("\\d{5}")) throw new IllegalStateException("vaultbank.iban.bank-code must be 5 digits (ABI)");
+        this.bankCode = bankCode;
+    }
+
+    /**
+     * ABI of the IBANs we issue.
+     */
+    public String bankCode() {
+        return bankCode;
+    }
+
+    /**
+     * ABI of an Italian IBAN (after country, check digits and CIN), or null if too short.
+     */
+    public static String bankCodeOf(String iban) {
+        return iban.length() < 10 ? null : iban.substring(5, 10);
+    }
+
     public String generateItalianIban() {
-        String abi = randomDigits(5);
+        String abi = bankCode;
         String cab = randomDigits(5);
         String account = randomDigits(12);
 
@@ -0,0 +1,64 @@
+package com.example.backend.core.banking;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a user's movements, opaque for clients (base64url).
+ * Ledger cursors carry the last ledger seq returned: [seq:8].
+ * Keyset cursors, for accounts still read from transfers, carry the last (created_at, id): [epoch micros:8][uuid:16].
+ */
+public record MovementCursor(long seq, Instant createdAt, UUID id) {
+
+    private static final int LEDGER_LEN = 8;
+    private static final int KEYSET_LEN = 8 + 16;
+
+    // Start of the list: sorts after every real row
+    public static final MovementCursor FIRST = new MovementCursor(Long.MAX_VALUE,
+            Instant.parse("9999-12-31T23:59:59Z"), new UUID(-1L, -1L));
+
+    public static MovementCursor ledger(long seq) {
+        return new MovementCursor(seq, null, null);
+    }
+
+    public static MovementCursor keyset(Instant createdAt, UUID id) {
+        return new MovementCursor(0, createdAt, id);
+    }
+
+    public boolean isKeyset() {
+        return this != FIRST && id != null;
+    }
+
+    public String encode() {
+        ByteBuffer buf;
+        if (isKeyset()) {
+            buf = ByteBuffer.allocate(KEYSET_LEN);
+            buf.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, createdAt));
+            buf.putLong(id.getMostSignificantBits());
+            buf.putLong(id.getLeastSignificantBits());
+        } else {
+            buf = ByteBuffer.allocate(LEDGER_LEN);
+            buf.putLong(seq);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    public static MovementCursor decode(String cursor) {
+        byte[] raw;
+        try {
+            raw = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(raw);
+        if (raw.length == LEDGER_LEN) return ledger(buf.getLong());
+        if (raw.length != KEYSET_LEN) throw new IllegalArgumentException("Invalid cursor");
+
+        Instant createdAt = Instant.EPOCH.plus(buf.getLong(), ChronoUnit.MICROS);
+        return keyset(createdAt, new UUID(buf.getLong(), buf.getLong()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.core.banking;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single transfer handed to a worker (sequencer lane or group commit). The worker claims it before
+ * executing it; a caller that stops waiting first abandons it, so it is never executed after the caller
+ * has been told it was not.
+ */
+final class QueuedTransfer {
+
+    private static final int WAITING = 0, CLAIMED = 1, ABANDONED = 2;
+
+    private final BankingService.TransferCommand command;
+    private final CompletableFuture<BankingService.TransferResult> result = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+
+    QueuedTransfer(BankingService.TransferCommand command) {
+        this.command = command;
+    }
+
+    BankingService.TransferCommand command() { return command; }
+
+    /**
+     * @return false if the caller has given up: skip it
+     */
+    boolean claim() {
+        return state.compareAndSet(WAITING, CLAIMED);
+    }
+
+    void complete(BankingService.TransferResult r) {
+        result.complete(r);
+    }
+
+    void fail(RuntimeException ex) {
+        result.completeExceptionally(ex);
+    }
+
+    /**
+     * Waits up to timeout for a worker to pick the transfer up and as long again for it to finish.
+     * Failures are rethrown as they were raised on the worker.
+     */
+    BankingService.TransferResult await(Duration timeout) {
+        try {
+            try {
+                return result.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (state.compareAndSet(WAITING, ABANDONED)) {
+                    throw new RejectedExecutionException("Transfer not executed in time, retry later");
+                }
+            }
+            // Already running: its transaction decides
+            try {
+                return result.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                throw new IllegalStateException("Transfer outcome unknown: check movements before retrying");
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Transfer failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the transfer", ex);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.crypto.CryptoService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Streams an account statement straight from the database to an OutputStream.
+ * Rows come from a forward-only cursor (fetch size, inside a read-only transaction so the driver really
+ * fetches in chunks) and are written out every {@code batch-size} rows, after resolving the counterparty
+ * names of that batch only: memory depends on the batch size, not on the number of rows.
+ */
+@Component
+public class StatementExporter {
+
+    public enum Format { CSV, NDJSON }
+
+    public record StatementLine(
+            Instant createdAt,
+            UUID transferId,
+            String direction,          // IN / OUT
+            BigDecimal amount,
+            String causal,
+            String counterpartyName,
+            String counterpartyIban,
+            BigDecimal balanceAfter    // null for accounts whose ledger is not backfilled yet
+    ) {}
+
+    private static final String LEDGER = "select transfer_id, direction, amount, balance_after_enc, counterparty_id, counterparty_iban, causal, created_at " +
+            "from ledger_entries where account_id = ? and created_at >= ? and created_at < ? order by seq";
+
+    // Fallback for accounts without ledger: same columns, built from transfers
+    private static final String TRANSFERS = "select id as transfer_id, 'OUT' as direction, amount, null::bytea as balance_after_enc, " +
+            "to_user_id as counterparty_id, to_iban as counterparty_iban, causal, created_at " +
+            "from transfers where from_user_id = ? and created_at >= ? and created_at < ? " +
+            "union all " +
+            "select id, 'IN', amount, null::bytea, from_user_id, from_iban, causal, created_at " +
+            "from transfers where to_user_id = ? and from_user_id <> ? and created_at >= ? and created_at < ? " +
+            "order by created_at, transfer_id";
+
+    private static final String NAMES = "select id, email, first_name_enc, last_name_enc from users where id = any(?)";
+
+    private static final String CSV_HEADER = "created_at,transfer_id,direction,amount,causal,counterparty_name,counterparty_iban,balance_after";
+
+    private record Row(Instant createdAt, UUID transferId, String direction, BigDecimal amount, byte[] balanceAfterEnc,
+                       UUID counterpartyId, String counterpartyIban, String causal) {}
+
+    private record NameRow(UUID id, String email, String firstNameEnc, String lastNameEnc) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final CryptoService cryptoService;
+    private final DisplayNameCache displayNameCache;
+    private final BalanceCodec balanceCodec;
+    private final JsonMapper jsonMapper;
+    private final int fetchSize;
+    private final int batchSize;
+    private final ZoneId zone;
+
+    public StatementExporter(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             CryptoService cryptoService,
+                             DisplayNameCache displayNameCache,
+                             BalanceCodec balanceCodec,
+                             JsonMapper jsonMapper,
+                             @Value("${vaultbank.statement.fetch-size:1000}") int fetchSize,
+                             @Value("${vaultbank.statement.batch-size:200}") int batchSize,
+                             @Value("${vaultbank.zone:Europe/Rome}") ZoneId zone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.cryptoService = cryptoService;
+        this.displayNameCache = displayNameCache;
+        this.balanceCodec = balanceCodec;
+        this.jsonMapper = jsonMapper;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.zone = zone;
+    }
+
+    // Statement days are calendar days in the bank's time zone
+    public Instant startOfDay(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant();
+    }
+
+    /**
+     * Writes the movements of userId with from <= created_at < to, oldest first.
+     */
+    public void export(UUID userId, Instant from, Instant to, Format format, OutputStream out) {
+        if (!from.isBefore(to)) throw new IllegalArgumentException("'from' must be before 'to'");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        readOnlyTx.executeWithoutResult(status -> {
+            try {
+                List<Long> seq = jdbcTemplate.queryForList("select ledger_seq from users where id = ?", Long.class, userId);
+                if (seq.isEmpty()) throw new IllegalArgumentException("User not found");
+                if (format == Format.CSV) writer.write(CSV_HEADER + "\n");
+
+                OffsetDateTime f = OffsetDateTime.ofInstant(from, ZoneOffset.UTC);
+                OffsetDateTime t = OffsetDateTime.ofInstant(to, ZoneOffset.UTC);
+                Batch batch = new Batch(writer, format);
+                if (seq.get(0) != null) stream(LEDGER, batch, userId, f, t);
+                else stream(TRANSFERS, batch, userId, f, t, userId, userId, f, t);
+                batch.flush();
+
+                writer.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private void stream(String sql, Batch batch, Object... args) {
+        RowCallbackHandler handler = rs -> batch.add(mapRow(rs));
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) ps.setObject(i + 1, args[i]);
+            return ps;
+        }, handler);
+    }
+
+    // Rows waiting for their counterparty names; written and dropped every batchSize rows
+    private final class Batch {
+        private final Writer writer;
+        private final Format format;
+        private final List<Row> rows = new ArrayList<>(batchSize);
+
+        Batch(Writer writer, Format format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        void add(Row r) {
+            rows.add(r);
+            if (rows.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (rows.isEmpty()) return;
+
+            Map<UUID, String> names = names(rows);
+            try {
+                for (Row r : rows) {
+                    String name = r.counterpartyId() == null ? "External" : names.getOrDefault(r.counterpartyId(), "Unknown");
+                    BigDecimal balance = r.balanceAfterEnc() == null ? null : BalanceCodec.fromCents(balanceCodec.decrypt(r.balanceAfterEnc()));
+                    StatementLine line = new StatementLine(r.createdAt(), r.transferId(), r.direction(), r.amount(),
+                            r.causal(), name, r.counterpartyIban(), balance);
+                    writer.write(format == Format.CSV ? csv(line) : jsonMapper.writeValueAsString(line));
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows.clear();
+        }
+    }
+
+    private Map<UUID, String> names(List<Row> rows) {
+        Set<UUID> ids = new HashSet<>();
+        for (Row r : rows) {
+            if (r.counterpartyId() != null) ids.add(r.counterpartyId());
+        }
+        if (ids.isEmpty()) return Map.of();
+
+        // Ciphertexts are needed anyway: the cache validates its entries against them
+        List<NameRow> users = jdbcTemplate.query(NAMES,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                (rs, i) -> new NameRow(rs.getObject("id", UUID.class), rs.getString("email"),
+                        rs.getString("first_name_enc"), rs.getString("last_name_enc")));
+
+        Map<UUID, String> out = new HashMap<>(users.size() * 2);
+        List<NameRow> misses = new ArrayList<>();
+        for (NameRow u : users) {
+            String cached = displayNameCache.get(u.id(), u.firstNameEnc(), u.lastNameEnc());
+            if (cached != null) out.put(u.id(), cached);
+            else misses.add(u);
+        }
+        if (misses.isEmpty()) return out;
+
+        List<String> encNames = new ArrayList<>(misses.size() * 2);
+        for (NameRow u : misses) {
+            encNames.add(u.firstNameEnc());
+            encNames.add(u.lastNameEnc());
+        }
+        Map<String, String> plain = cryptoService.decryptAll(encNames);
+        for (NameRow u : misses) {
+            String fn = plain.get(u.firstNameEnc());
+            String ln = plain.get(u.lastNameEnc());
+            String name = ((fn == null ? "" : fn) + " " + (ln == null ? "" : ln)).trim();
+            if (name.isEmpty()) name = u.email();
+            displayNameCache.put(u.id(), u.firstNameEnc(), u.lastNameEnc(), name);
+            out.put(u.id(), name);
+        }
+        return out;
+    }
+
+    private static Row mapRow(ResultSet rs) throws SQLException {
+        return new Row(
+                rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+                rs.getObject("transfer_id", UUID.class),
+                rs.getString("direction"),
+                rs.getBigDecimal("amount"),
+                rs.getBytes("balance_after_enc"),
+                rs.getObject("counterparty_id", UUID.class),
+                rs.getString("counterparty_iban"),
+                rs.getString("causal"));
+    }
+
+    private static String csv(StatementLine l) {
+        return l.createdAt() + "," + l.transferId() + "," + l.direction() + "," + l.amount().toPlainString() + ","
+                + csvField(l.causal()) + "," + csvField(l.counterpartyName()) + "," + l.counterpartyIban() + ","
+                + (l.balanceAfter() == null ? "" : l.balanceAfter().toPlainString());
+    }
+
+    // RFC 4180 quoting; a leading =, +, - or @ is prefixed so spreadsheets do not evaluate it as a formula
+    private static String csvField(String v) {
+        if (v == null) return "";
+        String s = !v.isEmpty() && "=+-@".indexOf(v.charAt(0)) >= 0 ? "'" + v : v;
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
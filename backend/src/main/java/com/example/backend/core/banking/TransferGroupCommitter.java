@@ -0,0 +1,202 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit for single transfers: concurrent requests are collected for at most max-wait (or until
+ * max-batch) and executed as one best-effort batch, so one commit (one fsync) acknowledges the whole group.
+ * A group only takes transfers touching disjoint accounts (recipients resolved to account ids through the
+ * {@link IbanDirectory}); a conflicting request waits for the next group.
+ * If the group transaction fails as a whole, its transfers are retried one by one.
+ * At most max-queued transfers wait; beyond that submit is rejected.
+ */
+@Component
+public class TransferGroupCommitter implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferGroupCommitter.class);
+
+    private final BankingService bankingService;
+    private final IbanDirectory ibanDirectory;
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final int maxBatch;
+    private final int threads;
+
+    private final LinkedBlockingQueue<QueuedTransfer> queue;
+
+    private final DistributionSummary groupSize;
+    private final Counter groupFailures;
+    private final Counter deferred;
+    private final Counter rejected;
+
+    public TransferGroupCommitter(BankingService bankingService,
+                                  IbanDirectory ibanDirectory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${vaultbank.transfer.group-commit.enabled:false}") boolean enabled,
+                                  @Value("${vaultbank.transfer.group-commit.max-wait:2ms}") Duration maxWait,
+                                  @Value("${vaultbank.transfer.group-commit.max-batch:64}") int maxBatch,
+                                  @Value("${vaultbank.transfer.group-commit.max-queued:10000}") int maxQueued,
+                                  @Value("${vaultbank.transfer.group-commit.threads:2}") int threads) {
+        this.bankingService = bankingService;
+        this.ibanDirectory = ibanDirectory;
+        this.enabled = enabled;
+        this.maxWaitNanos = Math.max(0, maxWait.toNanos());
+        this.maxBatch = Math.max(1, maxBatch);
+        this.threads = Math.max(1, threads);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, maxQueued));
+
+        this.groupSize = DistributionSummary.builder("vaultbank.transfer.group.size")
+                .description("Transfers committed per group")
+                .register(meterRegistry);
+        this.groupFailures = Counter.builder("vaultbank.transfer.group.failures").register(meterRegistry);
+        this.deferred = Counter.builder("vaultbank.transfer.group.deferred")
+                .description("Transfers pushed to the next group because they share an account with the current one")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("vaultbank.transfer.group.rejected")
+                .description("Transfers refused because max-queued were already waiting")
+                .register(meterRegistry);
+        meterRegistry.gauge("vaultbank.transfer.group.queue.depth", queue, LinkedBlockingQueue::size);
+    }
+
+    @Override
+    public String name() { return "transfer-group-commit"; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    @Override
+    public int threads() { return threads; }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * @throws RejectedExecutionException when max-queued transfers are already waiting
+     */
+    QueuedTransfer submit(BankingService.TransferCommand command) {
+        QueuedTransfer p = new QueuedTransfer(command);
+        if (!queue.offer(p)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Too many queued transfers, retry later");
+        }
+        return p;
+    }
+
+    // One collector per thread
+    @Override
+    public void run(BackgroundJobs.Worker worker) {
+        ArrayDeque<QueuedTransfer> carried = new ArrayDeque<>();
+        while (!worker.stopRequested()) {
+            try {
+                List<QueuedTransfer> group = new ArrayList<>(maxBatch);
+                Set<UUID> accounts = new HashSet<>();
+                Set<String> recipients = new HashSet<>();
+
+                // Requests deferred by the previous group go first
+                int carriedCount = carried.size();
+                for (int i = 0; i < carriedCount; i++) {
+                    QueuedTransfer p = carried.poll();
+                    if (group.size() < maxBatch && admit(p, accounts, recipients)) group.add(p);
+                    else carried.add(p);
+                }
+
+                if (group.isEmpty()) {
+                    QueuedTransfer first = queue.take();
+                    if (admit(first, accounts, recipients)) group.add(first);
+                    else carried.add(first);
+                }
+
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    QueuedTransfer p = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (p == null) break;
+                    if (admit(p, accounts, recipients)) {
+                        group.add(p);
+                    } else {
+                        deferred.increment();
+                        carried.add(p);
+                    }
+                }
+
+                if (!group.isEmpty()) commit(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                log.error("Group commit loop failed", ex);
+            }
+        }
+        for (QueuedTransfer p : carried) p.fail(new IllegalStateException("Transfer service shutting down"));
+    }
+
+    // Disjoint groups: an account already in the group, as sender or recipient, waits for the next one.
+    // A recipient not in the directory (external, or opened since its last refresh) is keyed by IBAN only;
+    // executeBatch still applies such an overlap correctly, in request order.
+    private boolean admit(QueuedTransfer p, Set<UUID> accounts, Set<String> recipients) {
+        BankingService.TransferCommand c = p.command();
+        String iban = c.toIban() == null ? null : c.toIban().toUpperCase(Locale.ROOT);
+        UUID recipient = ibanDirectory.userId(iban);
+        if (accounts.contains(c.fromUserId())
+                || (recipient != null && accounts.contains(recipient))
+                || (iban != null && recipients.contains(iban))) {
+            return false;
+        }
+        accounts.add(c.fromUserId());
+        if (recipient != null) accounts.add(recipient);
+        if (iban != null) recipients.add(iban);
+        return true;
+    }
+
+    private void commit(List<QueuedTransfer> group) {
+
+        // The caller stopped waiting and was told it did not run
+        group.removeIf(p -> !p.claim());
+        if (group.isEmpty()) return;
+        groupSize.record(group.size());
+
+        List<BankingService.TransferCommand> commands = new ArrayList<>(group.size());
+        for (QueuedTransfer p : group) commands.add(p.command());
+
+        List<BankingService.BatchItemResult> results;
+        try {
+            results = bankingService.executeBatch(commands, false);
+        } catch (RuntimeException ex) {
+            // The whole group rolled back: run the transfers one by one so one bad row does not fail the others
+            groupFailures.increment();
+            log.warn("Group commit of {} transfers failed, retrying individually", group.size(), ex);
+            for (QueuedTransfer p : group) runAlone(p);
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            BankingService.BatchItemResult r = results.get(i);
+            QueuedTransfer p = group.get(i);
+            if (r.status() == BankingService.BatchItemStatus.EXECUTED) {
+                p.complete(new BankingService.TransferResult(r.transferId(), r.createdAt(), r.newBalance()));
+            } else {
+                p.fail(r.failure());
+            }
+        }
+    }
+
+    private void runAlone(QueuedTransfer p) {
+        try {
+            p.complete(bankingService.transfer(p.command()));
+        } catch (RuntimeException ex) {
+            p.fail(ex);
+        }
+    }
+}
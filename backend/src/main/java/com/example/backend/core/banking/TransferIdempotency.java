@@ -0,0 +1,158 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.transfer.TransferIdempotencyStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates transfers submitted with an Idempotency-Key.
+ * Lookup order: recent keys in memory, then requests still running in this JVM (duplicates wait for the
+ * first execution), then transfer_idempotency. Only when all three miss is the transfer actually run;
+ * its key is stored in the same transaction as the transfer itself.
+ */
+@Component
+public class TransferIdempotency {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private record Key(UUID userId, String key) {}
+
+    private record Completed(String requestHash, BankingService.TransferResult result) {}
+
+    private final TransferIdempotencyStore store;
+    private final BalanceCodec balanceCodec;
+    private final Cache<Key, Completed> completed;
+    private final ConcurrentHashMap<Key, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter storeHits;
+    private final Counter inFlightWaits;
+
+    public TransferIdempotency(TransferIdempotencyStore store,
+                               BalanceCodec balanceCodec,
+                               MeterRegistry meterRegistry,
+                               @Value("${vaultbank.transfer.idempotency.cache.max-size:100000}") long maxSize,
+                               @Value("${vaultbank.transfer.idempotency.cache.ttl:24h}") Duration ttl) {
+        this.store = store;
+        this.balanceCodec = balanceCodec;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "transferIdempotency");
+        this.storeHits = Counter.builder("vaultbank.transfer.idempotency.store.hits")
+                .description("Duplicate requests answered from transfer_idempotency")
+                .register(meterRegistry);
+        this.inFlightWaits = Counter.builder("vaultbank.transfer.idempotency.waits")
+                .description("Duplicate requests that waited for the first execution")
+                .register(meterRegistry);
+        meterRegistry.gauge("vaultbank.transfer.idempotency.in-flight", inFlight, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Returns the outcome already recorded for this key, or runs {@code action} once and records it.
+     * A failed action is not recorded: duplicates waiting on it get the same error, later retries run again.
+     *
+     * @throws IllegalArgumentException if the key was used before with a different request
+     */
+    public BankingService.TransferResult execute(UUID userId, BankingService.Idempotency idem,
+                                                 Supplier<BankingService.TransferResult> action) {
+        Key k = new Key(userId, idem.key());
+
+        Completed done = completed.getIfPresent(k);
+        if (done != null) return check(done, idem);
+
+        CompletableFuture<Completed> mine = new CompletableFuture<>();
+        CompletableFuture<Completed> running = inFlight.putIfAbsent(k, mine);
+        if (running != null) {
+            inFlightWaits.increment();
+            return check(await(running), idem);
+        }
+
+        try {
+            done = load(userId, idem.key());
+            if (done != null) {
+                storeHits.increment();
+            } else {
+                try {
+                    done = new Completed(idem.requestHash(), action.get());
+                } catch (DuplicateKeyException ex) {
+                    // Same key committed meanwhile by another instance: its transfer stands, ours rolled back
+                    done = load(userId, idem.key());
+                    if (done == null) throw ex;
+                    storeHits.increment();
+                }
+            }
+            completed.put(k, done);
+            mine.complete(done);
+            return check(done, idem);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(k, mine);
+        }
+    }
+
+    public static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Invalid Idempotency-Key");
+        }
+    }
+
+    /**
+     * Fingerprint of the fields that define a transfer request: a reused key must come with the same values.
+     */
+    public static String requestHash(String toIban, BigDecimal amount, String causal) {
+        String canonical = (toIban == null ? "" : toIban) + "\n"
+                + (amount == null ? "" : amount.stripTrailingZeros().toPlainString()) + "\n"
+                + (causal == null ? "" : causal.trim());
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private Completed load(UUID userId, String key) {
+        return store.find(userId, key)
+                .map(e -> new Completed(e.requestHash(), new BankingService.TransferResult(
+                        e.transferId(), e.createdAt(), BalanceCodec.fromCents(balanceCodec.decrypt(e.newBalanceEnc())))))
+                .orElse(null);
+    }
+
+    private static BankingService.TransferResult check(Completed done, BankingService.Idempotency idem) {
+        if (!done.requestHash().equals(idem.requestHash())) {
+            throw new IllegalArgumentException("Idempotency-Key already used for a different request");
+        }
+        return done.result();
+    }
+
+    private static Completed await(CompletableFuture<Completed> running) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+}
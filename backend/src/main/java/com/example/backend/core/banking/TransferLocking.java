@@ -0,0 +1,175 @@
+package com.example.backend.core.banking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Locking strategy for single transfers (vaultbank.transfer.locking):
+ * pessimistic (default) locks both rows up front; optimistic reads without locks and commits with a version check,
+ * retrying a conflict with jittered backoff up to max-attempts, then falling back to the pessimistic path.
+ * Accounts that keep conflicting (conflict rate over the threshold in a window) go pessimistic for a cooldown.
+ */
+@Component
+public class TransferLocking {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferLocking.class);
+
+    public enum Mode { PESSIMISTIC, OPTIMISTIC }
+
+    // Attempts and conflicts in the current window; pessimistic until the cooldown expires
+    private static final class Contention {
+        final AtomicLong window = new AtomicLong();
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicInteger conflicts = new AtomicInteger();
+        volatile long pessimisticUntilMillis;
+    }
+
+    private final BankingService bankingService;
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final int maxAttempts;
+    private final long backoffMicros;
+    private final long windowMillis;
+    private final int minConflicts;
+    private final double conflictRateThreshold;
+    private final long cooldownMillis;
+
+    private final Cache<String, Contention> contention;
+
+    private final Counter conflicts;
+    private final Counter exhausted;
+    private final Counter pessimisticRouted;
+
+    public TransferLocking(BankingService bankingService,
+                           MeterRegistry meterRegistry,
+                           @Value("${vaultbank.transfer.locking:pessimistic}") String mode,
+                           @Value("${vaultbank.transfer.optimistic.max-attempts:3}") int maxAttempts,
+                           @Value("${vaultbank.transfer.optimistic.backoff:2ms}") Duration backoff,
+                           @Value("${vaultbank.transfer.optimistic.window:10s}") Duration window,
+                           @Value("${vaultbank.transfer.optimistic.min-conflicts:3}") int minConflicts,
+                           @Value("${vaultbank.transfer.optimistic.conflict-rate-threshold:0.2}") double conflictRateThreshold,
+                           @Value("${vaultbank.transfer.optimistic.cooldown:60s}") Duration cooldown) {
+        this.bankingService = bankingService;
+        this.meterRegistry = meterRegistry;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMicros = Math.max(1, backoff.toNanos() / 1000);
+        this.windowMillis = Math.max(1, window.toMillis());
+        this.minConflicts = Math.max(1, minConflicts);
+        this.conflictRateThreshold = conflictRateThreshold;
+        this.cooldownMillis = cooldown.toMillis();
+
+        this.contention = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(window.plus(cooldown))
+                .build();
+
+        this.conflicts = Counter.builder("vaultbank.transfer.optimistic.conflicts").register(meterRegistry);
+        this.exhausted = Counter.builder("vaultbank.transfer.optimistic.exhausted")
+                .description("Optimistic transfers that ran out of attempts and went pessimistic")
+                .register(meterRegistry);
+        this.pessimisticRouted = Counter.builder("vaultbank.transfer.optimistic.pessimistic.routed")
+                .description("Transfers sent straight to the pessimistic path because an account is contended")
+                .register(meterRegistry);
+    }
+
+    // Registered after construction: the gauge keeps a reference to this
+    @PostConstruct
+    void registerGauges() {
+        meterRegistry.gauge("vaultbank.transfer.optimistic.contended.accounts", this, l -> l.contendedAccounts());
+    }
+
+    public Mode mode() { return mode; }
+
+    public BankingService.TransferResult transfer(BankingService.TransferCommand command) {
+        if (mode == Mode.PESSIMISTIC) return bankingService.transfer(command);
+
+        String senderKey = "u:" + command.fromUserId();
+        String recipientKey = "i:" + command.toIban();
+        if (isContended(senderKey) || isContended(recipientKey)) {
+            pessimisticRouted.increment();
+            return bankingService.transfer(command);
+        }
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            record(senderKey, false);
+            record(recipientKey, false);
+            try {
+                return bankingService.transferOptimistic(command);
+            } catch (OptimisticLockingFailureException ex) {
+                conflicts.increment();
+                record(senderKey, true);
+                record(recipientKey, true);
+                if (attempt < maxAttempts) backoff(attempt);
+            }
+        }
+
+        exhausted.increment();
+        return bankingService.transfer(command);
+    }
+
+    private void record(String key, boolean conflict) {
+        if (key.endsWith(":null")) return;
+
+        long now = System.currentTimeMillis();
+        Contention c = contention.get(key, k -> new Contention());
+        long w = now / windowMillis;
+        long current = c.window.get();
+        if (current != w && c.window.compareAndSet(current, w)) {
+            c.attempts.set(0);
+            c.conflicts.set(0);
+        }
+        if (!conflict) {
+            c.attempts.incrementAndGet();
+            return;
+        }
+
+        int n = c.conflicts.incrementAndGet();
+        int attempts = Math.max(1, c.attempts.get());
+        if (n >= minConflicts && (double) n / attempts >= conflictRateThreshold && c.pessimisticUntilMillis <= now) {
+            log.info("Account {} is contended ({} conflicts in {} attempts): pessimistic locking for {} s",
+                    key, n, attempts, cooldownMillis / 1000);
+            c.pessimisticUntilMillis = now + cooldownMillis;
+        }
+    }
+
+    private boolean isContended(String key) {
+        Contention c = contention.getIfPresent(key);
+        return c != null && c.pessimisticUntilMillis > System.currentTimeMillis();
+    }
+
+    // base * 2^(attempt-1) with full jitter: colliding transfers do not retry in lockstep
+    private void backoff(int attempt) {
+        long max = backoffMicros << Math.min(attempt - 1, 10);
+        long micros = ThreadLocalRandom.current().nextLong(max + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(micros * 1000));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying transfer", ex);
+        }
+    }
+
+    private int contendedAccounts() {
+        long now = System.currentTimeMillis();
+        int n = 0;
+        for (Contention c : contention.asMap().values()) {
+            if (c.pessimisticUntilMillis > now) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.core.banking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Entry point for single transfers: picks the execution path (direct with the configured
+ * {@link TransferLocking} mode, group commit or sequenced) for each request.
+ * A queued transfer not picked up within vaultbank.transfer.queue-timeout is dropped and reported as not executed.
+ */
+@Service
+public class TransferRouter {
+
+    private final TransferLocking locking;
+    private final TransferSequencer sequencer;
+    private final TransferGroupCommitter groupCommitter;
+    private final Duration queueTimeout;
+
+    public TransferRouter(TransferLocking locking,
+                          TransferSequencer sequencer,
+                          TransferGroupCommitter groupCommitter,
+                          @Value("${vaultbank.transfer.queue-timeout:5s}") Duration queueTimeout) {
+        this.locking = locking;
+        this.sequencer = sequencer;
+        this.groupCommitter = groupCommitter;
+        this.queueTimeout = queueTimeout;
+    }
+
+    public BankingService.TransferResult transfer(BankingService.TransferCommand command) {
+        if (command.toIban() != null && sequencer.recordArrival(command.toIban())) {
+            return sequencer.submit(command).await(queueTimeout);
+        }
+        if (groupCommitter.isEnabled()) {
+            return groupCommitter.submit(command).await(queueTimeout);
+        }
+        return locking.transfer(command);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-writer lanes for hot recipient accounts.
+ * Transfers to a hot IBAN are queued on that IBAN's lane; one worker at a time drains the lane and
+ * executes the queued transfers as one best-effort batch: every sender keeps its own overdraft check,
+ * the recipient's credits are coalesced into one balance write and the transfer rows into one batch insert.
+ * At most max-queued transfers wait across all lanes; beyond that submit is rejected.
+ * Only our own accounts can be hot: an external IBAN has no balance row to contend on.
+ */
+@Component
+public class TransferSequencer {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferSequencer.class);
+
+    private static final class Lane {
+        final String iban;
+        final ConcurrentLinkedQueue<QueuedTransfer> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger depth = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        Lane(String iban) { this.iban = iban; }
+    }
+
+    // Arrivals per recipient in the current second; hot until the cooldown expires
+    private static final class Rate {
+        final AtomicLong second = new AtomicLong();
+        final AtomicInteger count = new AtomicInteger();
+        volatile long hotUntilMillis;
+    }
+
+    private final BankingService bankingService;
+    private final IbanDirectory ibanDirectory;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int hotThresholdPerSecond;
+    private final long hotCooldownMillis;
+    private final int maxBatch;
+    private final int maxQueued;
+
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Cache<String, Rate> rates;
+    private final ExecutorService workers;
+    private final AtomicInteger totalDepth = new AtomicInteger();
+
+    private final DistributionSummary flushSize;
+    private final Counter hotDetections;
+    private final Counter flushFailures;
+    private final Counter rejected;
+
+    public TransferSequencer(BankingService bankingService,
+                             IbanDirectory ibanDirectory,
+                             UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${vaultbank.transfer.sequencer.enabled:false}") boolean enabled,
+                             @Value("${vaultbank.transfer.sequencer.hot-threshold-per-second:20}") int hotThresholdPerSecond,
+                             @Value("${vaultbank.transfer.sequencer.hot-cooldown:30s}") Duration hotCooldown,
+                             @Value("${vaultbank.transfer.sequencer.max-batch:200}") int maxBatch,
+                             @Value("${vaultbank.transfer.sequencer.max-queued:10000}") int maxQueued,
+                             @Value("${vaultbank.transfer.sequencer.threads:4}") int threads) {
+        this.bankingService = bankingService;
+        this.ibanDirectory = ibanDirectory;
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.hotThresholdPerSecond = Math.max(1, hotThresholdPerSecond);
+        this.hotCooldownMillis = hotCooldown.toMillis();
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxQueued = Math.max(1, maxQueued);
+
+        this.rates = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "transfer-sequencer-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.flushSize = DistributionSummary.builder("vaultbank.sequencer.flush.size")
+                .description("Transfers executed per lane flush")
+                .register(meterRegistry);
+        this.hotDetections = Counter.builder("vaultbank.sequencer.hot.detections").register(meterRegistry);
+        this.flushFailures = Counter.builder("vaultbank.sequencer.flush.failures").register(meterRegistry);
+        this.rejected = Counter.builder("vaultbank.sequencer.rejected")
+                .description("Transfers refused because max-queued were already waiting")
+                .register(meterRegistry);
+        meterRegistry.gauge("vaultbank.sequencer.queue.depth", totalDepth);
+        meterRegistry.gauge("vaultbank.sequencer.lanes", lanes, ConcurrentHashMap::size);
+    }
+
+    // Counts lanes past their hot threshold; needs a fully built sequencer
+    @PostConstruct
+    void registerGauges() {
+        meterRegistry.gauge("vaultbank.sequencer.hot.accounts", this, s -> s.hotAccounts());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Records one transfer towards this IBAN and tells whether it should go through the sequencer.
+     * Transfers to external IBANs are not counted and never sequenced.
+     */
+    public boolean recordArrival(String toIban) {
+        if (!enabled || !isInternal(toIban)) return false;
+
+        long nowMillis = System.currentTimeMillis();
+        long sec = nowMillis / 1000;
+        Rate r = rates.get(toIban, k -> new Rate());
+
+        long current = r.second.get();
+        if (current != sec && r.second.compareAndSet(current, sec)) {
+            r.count.set(0);
+        }
+        if (r.count.incrementAndGet() >= hotThresholdPerSecond) {
+            if (r.hotUntilMillis <= nowMillis) {
+                hotDetections.increment();
+                log.info("Account {} is hot: sequencing its incoming transfers", toIban);
+            }
+            r.hotUntilMillis = nowMillis + hotCooldownMillis;
+        }
+        return r.hotUntilMillis > nowMillis || lanes.containsKey(toIban);
+    }
+
+    // The directory answers from memory; the DB only for IBANs it cannot place (not loaded yet, opened elsewhere)
+    private boolean isInternal(String iban) {
+        if (ibanDirectory.userId(iban) != null) return true;
+        if (ibanDirectory.isExternal(iban)) return false;
+        return userRepository.existsByIban(iban);
+    }
+
+    /**
+     * @throws RejectedExecutionException when max-queued transfers are already waiting
+     */
+    QueuedTransfer submit(BankingService.TransferCommand command) {
+        if (totalDepth.incrementAndGet() > maxQueued) {
+            totalDepth.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("Too many queued transfers, retry later");
+        }
+        Lane lane = lanes.computeIfAbsent(command.toIban(), Lane::new);
+        QueuedTransfer p = new QueuedTransfer(command);
+
+        lane.queue.add(p);
+        lane.depth.incrementAndGet();
+        schedule(lane);
+        return p;
+    }
+
+    public int queueDepth(String iban) {
+        Lane lane = lanes.get(iban);
+        return lane == null ? 0 : lane.depth.get();
+    }
+
+    private void schedule(Lane lane) {
+        if (lane.scheduled.compareAndSet(false, true)) {
+            workers.execute(() -> drain(lane));
+        }
+    }
+
+    private void drain(Lane lane) {
+        try {
+            List<QueuedTransfer> batch = new ArrayList<>(Math.min(maxBatch, lane.depth.get()));
+            QueuedTransfer p;
+            while ((p = lane.queue.poll()) != null) {
+                lane.depth.decrementAndGet();
+                totalDepth.decrementAndGet();
+                // The caller stopped waiting and was told it did not run
+                if (!p.claim()) continue;
+                batch.add(p);
+                if (batch.size() == maxBatch) {
+                    flush(lane, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) flush(lane, batch);
+        } finally {
+            lane.scheduled.set(false);
+            // Something arrived after the last poll but before the flag was cleared
+            if (!lane.queue.isEmpty()) {
+                schedule(lane);
+            } else if (!isHot(lane.iban)) {
+                // Idle and cooled down. An item racing in still holds the lane object and schedules it itself.
+                lanes.remove(lane.iban, lane);
+            }
+        }
+    }
+
+    private void flush(Lane lane, List<QueuedTransfer> batch) {
+        flushSize.record(batch.size());
+
+        List<BankingService.TransferCommand> commands = new ArrayList<>(batch.size());
+        for (QueuedTransfer p : batch) commands.add(p.command());
+
+        List<BankingService.BatchItemResult> results;
+        try {
+            results = bankingService.executeBatch(commands, false);
+        } catch (RuntimeException ex) {
+            // The whole flush rolled back: run the transfers one by one so one bad row does not fail the others
+            flushFailures.increment();
+            log.warn("Sequenced flush of {} transfers to {} failed, retrying individually", batch.size(), lane.iban, ex);
+            for (QueuedTransfer p : batch) runAlone(p);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            BankingService.BatchItemResult r = results.get(i);
+            QueuedTransfer p = batch.get(i);
+            if (r.status() == BankingService.BatchItemStatus.EXECUTED) {
+                p.complete(new BankingService.TransferResult(r.transferId(), r.createdAt(), r.newBalance()));
+            } else {
+                p.fail(r.failure());
+            }
+        }
+    }
+
+    private void runAlone(QueuedTransfer p) {
+        try {
+            p.complete(bankingService.transfer(p.command()));
+        } catch (RuntimeException ex) {
+            p.fail(ex);
+        }
+    }
+
+    private boolean isHot(String iban) {
+        Rate r = rates.getIfPresent(iban);
+        return r != null && r.hotUntilMillis > System.currentTimeMillis();
+    }
+
+    private int hotAccounts() {
+        long now = System.currentTimeMillis();
+        int n = 0;
+        for (Rate r : rates.asMap().values()) {
+            if (r.hotUntilMillis > now) n++;
+        }
+        return n;
+    }
+}
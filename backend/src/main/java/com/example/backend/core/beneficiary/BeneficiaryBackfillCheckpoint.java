@@ -0,0 +1,62 @@
+package com.example.backend.core.beneficiary;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of {@link BeneficiaryBackfillJob}: a single row, completed once every account has been backfilled.
+ */
+@Entity
+@Table(name = "beneficiary_backfill_checkpoints")
+public class BeneficiaryBackfillCheckpoint {
+
+    public static final String ID = "beneficiaries";
+
+    @Id
+    @Column(name = "id", nullable = false, length = 32, updatable = false)
+    private String id;
+
+    @Column(name = "last_user_id")
+    private UUID lastUserId; // keyset position: next chunk starts after this id
+
+    @Column(name = "accounts", nullable = false)
+    private long accounts;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private Instant startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public BeneficiaryBackfillCheckpoint() {}
+
+    public static BeneficiaryBackfillCheckpoint start() {
+        BeneficiaryBackfillCheckpoint c = new BeneficiaryBackfillCheckpoint();
+        c.id = ID;
+        c.startedAt = Instant.now();
+        c.updatedAt = c.startedAt;
+        return c;
+    }
+
+    public void advance(UUID lastUserId, long accounts) {
+        this.lastUserId = lastUserId;
+        this.accounts += accounts;
+        this.updatedAt = Instant.now();
+    }
+
+    public void complete() {
+        this.completedAt = Instant.now();
+        this.updatedAt = this.completedAt;
+    }
+
+    public String getId() { return id; }
+    public UUID getLastUserId() { return lastUserId; }
+    public long getAccounts() { return accounts; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public Instant getCompletedAt() { return completedAt; }
+}
@@ -0,0 +1,6 @@
+package com.example.backend.core.beneficiary;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BeneficiaryBackfillCheckpointRepository extends JpaRepository<BeneficiaryBackfillCheckpoint, String> {
+}
@@ -0,0 +1,124 @@
+package com.example.backend.core.beneficiary;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fills beneficiaries from the transfer history, one account per transaction under its users row lock
+ * (the lock a transfer holds, or waits for on its versioned update, before writing beneficiaries).
+ * Until it has reached an account, beneficiaries of that account's older transfers count as new in the fraud checks.
+ * Progress is checkpointed per chunk: a restart resumes after the last chunk, and once every account is done
+ * the job is a no-op (transfers since then write their beneficiaries themselves).
+ */
+@Component
+public class BeneficiaryBackfillJob implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficiaryBackfillJob.class);
+
+    private static final String NAME = "beneficiaries-backfill";
+
+    private static final String BACKFILL = "insert into beneficiaries (user_id, iban, recipient_user_id, first_used_at) " +
+            "select from_user_id, to_iban, (array_agg(to_user_id order by created_at desc))[1], min(created_at) " +
+            "from transfers where from_user_id = ? group by from_user_id, to_iban " +
+            "on conflict (user_id, iban) do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BeneficiaryIndex beneficiaryIndex;
+    private final BeneficiaryBackfillCheckpointRepository checkpointRepository;
+    private final BackgroundJobs jobs;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Counter accountsCounter;
+
+    public BeneficiaryBackfillJob(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  BeneficiaryIndex beneficiaryIndex,
+                                  BeneficiaryBackfillCheckpointRepository checkpointRepository,
+                                  BackgroundJobs jobs,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${vaultbank.beneficiaries.backfill.enabled:true}") boolean enabled,
+                                  @Value("${vaultbank.beneficiaries.backfill.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.beneficiaryIndex = beneficiaryIndex;
+        this.checkpointRepository = checkpointRepository;
+        this.jobs = jobs;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.accountsCounter = Counter.builder("vaultbank.beneficiaries.backfill.accounts").register(meterRegistry);
+        meterRegistry.gauge("vaultbank.beneficiaries.backfill.running", jobs, j -> j.isRunning(NAME) ? 1 : 0);
+    }
+
+    @Override
+    public String name() { return NAME; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    /**
+     * @return false if the backfill is already running
+     */
+    public boolean start() {
+        return jobs.start(this);
+    }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) {
+        BeneficiaryBackfillCheckpoint checkpoint = checkpointRepository.findById(BeneficiaryBackfillCheckpoint.ID)
+                .orElseGet(() -> checkpointRepository.save(BeneficiaryBackfillCheckpoint.start()));
+        if (checkpoint.getCompletedAt() != null) return;
+
+        long accounts = 0;
+        long startNanos = System.nanoTime();
+        while (!worker.stopRequested()) {
+            UUID after = checkpoint.getLastUserId();
+            List<UUID> ids = after == null
+                    ? jdbcTemplate.queryForList("select id from users order by id limit ?", UUID.class, chunkSize)
+                    : jdbcTemplate.queryForList("select id from users where id > ? order by id limit ?", UUID.class, after, chunkSize);
+            if (ids.isEmpty()) {
+                checkpoint.complete();
+                checkpointRepository.save(checkpoint);
+                log.info("Beneficiaries backfill completed: {} accounts", checkpoint.getAccounts());
+                return;
+            }
+
+            int done = 0;
+            for (UUID id : ids) {
+                if (worker.stopRequested()) break;
+                backfill(id);
+                done++;
+            }
+            if (done == 0) break;
+            accounts += done;
+            // Accounts commit one by one: a crash before this save only redoes them, which inserts nothing
+            checkpoint.advance(ids.get(done - 1), done);
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+
+        log.info("Beneficiaries backfilled for {} accounts in {} ms, stopped after {}",
+                accounts, (System.nanoTime() - startNanos) / 1_000_000, checkpoint.getLastUserId());
+    }
+
+    private void backfill(UUID accountId) {
+        int added = transactionTemplate.execute(status -> {
+            List<UUID> locked = jdbcTemplate.queryForList("select id from users where id = ? for update", UUID.class, accountId);
+            if (locked.isEmpty()) return 0;
+            return jdbcTemplate.update(BACKFILL, accountId);
+        });
+        // A set loaded before the rows existed is incomplete: reload it on next access
+        if (added > 0) beneficiaryIndex.invalidate(accountId);
+        accountsCounter.increment();
+    }
+}
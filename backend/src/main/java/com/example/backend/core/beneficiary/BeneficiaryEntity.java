@@ -0,0 +1,58 @@
+package com.example.backend.core.beneficiary;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An IBAN a user has sent money to at least once. One row per (user, IBAN), written by
+ * {@link BeneficiaryJournal} in the transfer's transaction the first time the pair is seen.
+ */
+@Entity
+@Table(name = "beneficiaries")
+@IdClass(BeneficiaryEntity.Key.class)
+public class BeneficiaryEntity {
+
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private UUID userId;
+        private String iban;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(userId, k.userId) && Objects.equals(iban, k.iban);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(userId, iban); }
+    }
+
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Id
+    @Column(name = "iban", nullable = false, length = 34, updatable = false)
+    private String iban;
+
+    // Null for external IBANs
+    @Column(name = "recipient_user_id", updatable = false)
+    private UUID recipientUserId;
+
+    @Column(name = "first_used_at", nullable = false, updatable = false)
+    private Instant firstUsedAt;
+
+    public BeneficiaryEntity() {}
+
+    public UUID getUserId() { return userId; }
+    public String getIban() { return iban; }
+    public UUID getRecipientUserId() { return recipientUserId; }
+    public Instant getFirstUsedAt() { return firstUsedAt; }
+}
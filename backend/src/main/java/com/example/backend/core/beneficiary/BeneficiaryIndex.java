@@ -0,0 +1,133 @@
+package com.example.backend.core.beneficiary;
+
+import com.example.backend.core.transfer.TransferEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Known beneficiaries per user, in memory: an LRU of per-user IBAN sets loaded from the beneficiaries table
+ * on first access (one primary key prefix scan) and extended after each committed transfer.
+ * Bounded by the total number of IBANs held, so a few users with long lists cannot crowd out everyone else.
+ * A set built from IBANs read outside the cache load is versioned with {@link #stamp(UUID)}: if a transfer of
+ * that user committed in between, the set may lack its IBAN and is dropped after use.
+ */
+@Component
+public class BeneficiaryIndex {
+
+    private final BeneficiaryRepository beneficiaryRepository;
+    private final Cache<UUID, Set<String>> users;
+    // Bumped when a committed transfer finds its user not cached, striped by user id
+    private final AtomicLongArray missed = new AtomicLongArray(1024);
+
+    public BeneficiaryIndex(BeneficiaryRepository beneficiaryRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${vaultbank.beneficiaries.cache.max-ibans:2000000}") long maxIbans) {
+        this.beneficiaryRepository = beneficiaryRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumWeight(maxIbans)
+                .weigher((UUID id, Set<String> ibans) -> 1 + ibans.size())
+                .recordStats()
+                .build();
+        // hits / misses / evictions / size
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "beneficiaries");
+    }
+
+    /**
+     * True if the user has already sent a committed transfer to this IBAN.
+     */
+    public boolean isKnown(UUID userId, String iban) {
+        if (iban == null) return false;
+        return isKnown(userId, iban, stamp(userId), () -> beneficiaryRepository.findIbansByUserId(userId));
+    }
+
+    /**
+     * Version of the user's beneficiaries as seen by this index: take it before reading IBANs
+     * to pass to {@link #isKnown(UUID, String, long, Supplier)}.
+     */
+    public long stamp(UUID userId) {
+        return missed.get(stripe(userId));
+    }
+
+    /**
+     * Like {@link #isKnown(UUID, String)}, loading a user not cached yet from the given IBANs instead of the table.
+     * If a transfer of the user committed since {@code stamp} was taken, the IBANs may be stale: they answer
+     * this call but are not kept, so the next access reloads from the table.
+     */
+    public boolean isKnown(UUID userId, String iban, long stamp, Supplier<? extends Collection<String>> ibans) {
+        boolean[] loaded = new boolean[1];
+        Set<String> known = users.get(userId, id -> {
+            loaded[0] = true;
+            Set<String> s = ConcurrentHashMap.newKeySet();
+            s.addAll(ibans.get());
+            return s;
+        });
+        if (loaded[0] && missed.get(stripe(userId)) != stamp) users.asMap().remove(userId, known);
+        return iban != null && known.contains(iban);
+    }
+
+    /**
+     * A new account has no beneficiaries: its set starts empty without a read.
+     */
+    public void startEmpty(UUID userId) {
+        users.asMap().putIfAbsent(userId, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Like {@link #isKnown(UUID, String)} but never goes to the DB: false also when the user is not loaded.
+     */
+    public boolean isCachedKnown(UUID userId, String iban) {
+        Set<String> ibans = users.getIfPresent(userId);
+        return ibans != null && ibans.contains(iban);
+    }
+
+    public void invalidate(UUID userId) {
+        users.invalidate(userId);
+    }
+
+    /**
+     * Adds the transfers' beneficiaries once the current transaction commits (right away outside a transaction).
+     */
+    public void recordAfterCommit(List<TransferEntity> transfers) {
+        if (transfers.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(transfers);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(transfers);
+            }
+        });
+    }
+
+    private void record(List<TransferEntity> transfers) {
+        for (TransferEntity t : transfers) {
+            // compute re-weighs the entry. Users not loaded yet read the committed row when they are,
+            // unless their IBANs were read before the commit: the stamp tells those loads apart
+            Set<String> cached = users.asMap().computeIfPresent(t.getFromUserId(), (id, ibans) -> {
+                ibans.add(t.getToIban());
+                return ibans;
+            });
+            if (cached == null) missed.incrementAndGet(stripe(t.getFromUserId()));
+        }
+    }
+
+    private int stripe(UUID userId) {
+        return userId.hashCode() & (missed.length() - 1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.core.beneficiary;
+
+import com.example.backend.core.transfer.TransferEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Adds the beneficiaries of new transfers inside the caller's transaction.
+ * Pairs the index already knows are skipped, so a transfer to a usual beneficiary writes nothing here;
+ * the rest go in one batch of insert-if-absent, in (user, IBAN) order.
+ */
+@Component
+public class BeneficiaryJournal {
+
+    private static final String INSERT = "insert into beneficiaries (user_id, iban, recipient_user_id, first_used_at) " +
+            "values (?, ?, ?, ?) on conflict (user_id, iban) do nothing";
+
+    private record Key(UUID userId, String iban) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key o) {
+            int c = userId.compareTo(o.userId);
+            return c != 0 ? c : iban.compareTo(o.iban);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BeneficiaryIndex beneficiaryIndex;
+
+    public BeneficiaryJournal(JdbcTemplate jdbcTemplate, BeneficiaryIndex beneficiaryIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.beneficiaryIndex = beneficiaryIndex;
+    }
+
+    public void record(List<TransferEntity> transfers) {
+        if (transfers.isEmpty()) return;
+
+        Map<Key, TransferEntity> fresh = new TreeMap<>();
+        for (TransferEntity t : transfers) {
+            if (beneficiaryIndex.isCachedKnown(t.getFromUserId(), t.getToIban())) continue;
+            fresh.putIfAbsent(new Key(t.getFromUserId(), t.getToIban()), t);
+        }
+
+        if (!fresh.isEmpty()) {
+            List<TransferEntity> rows = new ArrayList<>(fresh.values());
+            jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (ps, t) -> {
+                ps.setObject(1, t.getFromUserId());
+                ps.setString(2, t.getToIban());
+                if (t.getToUserId() != null) ps.setObject(3, t.getToUserId());
+                else ps.setNull(3, Types.OTHER);
+                ps.setObject(4, OffsetDateTime.ofInstant(t.getCreatedAt(), ZoneOffset.UTC));
+            });
+        }
+        beneficiaryIndex.recordAfterCommit(transfers);
+    }
+}
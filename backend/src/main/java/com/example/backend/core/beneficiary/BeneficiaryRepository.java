@@ -0,0 +1,20 @@
+package com.example.backend.core.beneficiary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface BeneficiaryRepository extends JpaRepository<BeneficiaryEntity, BeneficiaryEntity.Key> {
+
+    /**
+     * All IBANs of a user (prefix scan of the primary key).
+     */
+    @Query("select b.iban from BeneficiaryEntity b where b.userId = :uid")
+    List<String> findIbansByUserId(@Param("uid") UUID uid);
+
+    List<BeneficiaryEntity> findByUserIdOrderByFirstUsedAtDesc(UUID userId, Pageable pageable);
+}
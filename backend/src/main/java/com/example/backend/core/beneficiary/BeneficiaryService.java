@@ -0,0 +1,37 @@
+package com.example.backend.core.beneficiary;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Beneficiary lists read from the beneficiaries table only (never from transfers).
+ */
+@Service
+public class BeneficiaryService {
+
+    public static final int DEFAULT_PAGE = 50;
+    public static final int MAX_PAGE = 200;
+
+    public record BeneficiaryItem(String iban, boolean internal, Instant firstUsedAt) {}
+
+    private final BeneficiaryRepository beneficiaryRepository;
+
+    public BeneficiaryService(BeneficiaryRepository beneficiaryRepository) {
+        this.beneficiaryRepository = beneficiaryRepository;
+    }
+
+    /**
+     * Most recently added first.
+     */
+    public List<BeneficiaryItem> list(UUID userId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE) throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE);
+
+        return beneficiaryRepository.findByUserIdOrderByFirstUsedAtDesc(userId, PageRequest.of(0, limit)).stream()
+                .map(b -> new BeneficiaryItem(b.getIban(), b.getRecipientUserId() != null, b.getFirstUsedAt()))
+                .toList();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.core.crypto;
+
+import javax.crypto.SecretKey;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * AES keys by id. New values are always written with the active key; stored envelopes carry
+ * the id of the key that produced them. Legacy (pre-envelope) values have no id and use the legacy key.
+ */
+public final class AesKeyRing {
+
+    private final Map<Integer, SecretKey> keys;
+    private final int activeKeyId;
+    private final int legacyKeyId;
+
+    public AesKeyRing(Map<Integer, SecretKey> keys, int activeKeyId, int legacyKeyId) {
+        for (int id : keys.keySet()) {
+            if (id < 0 || id > 255) throw new IllegalStateException("Crypto key id must be in [0, 255]. Current: " + id);
+        }
+        if (!keys.containsKey(activeKeyId)) throw new IllegalStateException("Active crypto key not configured: " + activeKeyId);
+        if (!keys.containsKey(legacyKeyId)) throw new IllegalStateException("Legacy crypto key not configured: " + legacyKeyId);
+
+        this.keys = Map.copyOf(keys);
+        this.activeKeyId = activeKeyId;
+        this.legacyKeyId = legacyKeyId;
+    }
+
+    public int activeKeyId() { return activeKeyId; }
+    public SecretKey active() { return keys.get(activeKeyId); }
+
+    public SecretKey legacy() { return keys.get(legacyKeyId); }
+
+    public SecretKey get(int keyId) {
+        SecretKey k = keys.get(keyId);
+        if (k == null) throw new IllegalArgumentException("Unknown key id: " + keyId);
+        return k;
+    }
+
+    public Set<Integer> keyIds() { return keys.keySet(); }
+}
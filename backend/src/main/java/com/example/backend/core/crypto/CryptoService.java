@@ -5,9 +5,17 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
-import java.util.Base64;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -16,36 +24,215 @@ public class CryptoService {
     private static final String TRANSFORMATION = "AES/GCM/NoPadding";
     private static final int IV_LEN_BYTES = 12;       // standard for GCM
     private static final int TAG_LEN_BITS = 128;      // 16 bytes tag
+    private static final int TAG_LEN_BYTES = TAG_LEN_BITS / 8;
 
-    private final SecretKey aesKey;
+    // Binary envelope: [version:1][keyId:1][iv:12][ciphertext+tag]
+    public static final byte ENVELOPE_V1 = 1;
+    private static final int HEADER_LEN = 2 + IV_LEN_BYTES;
+
+    private final AesKeyRing keyRing;
     private final SecureRandom random = new SecureRandom();
+    private final ThreadPoolExecutor batchExecutor;
+    private final int parallelThreshold;
+
+    // Cipher.getInstance does a provider lookup every time: reuse instances and only re-init them.
+    // A shared pool rather than a ThreadLocal: with virtual threads every request is a new thread.
+    private final ArrayBlockingQueue<Cipher> ciphers;
+
+    public CryptoService(AesKeyRing keyRing,
+                         @Value("${vaultbank.crypto.batch-threads:0}") int batchThreads,
+                         @Value("${vaultbank.crypto.parallel-threshold:256}") int parallelThreshold,
+                         @Value("${vaultbank.crypto.cipher-pool-size:256}") int cipherPoolSize) {
+        this.keyRing = keyRing;
+        this.ciphers = new ArrayBlockingQueue<>(Math.max(1, cipherPoolSize));
+        this.batchExecutor = newBatchExecutor(batchThreads > 0 ? batchThreads : Runtime.getRuntime().availableProcessors());
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
 
-    public CryptoService(SecretKey aesKey) {
-        this.aesKey = aesKey;
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdown();
     }
 
     public String encryptString(String plaintext) {
         if (plaintext == null) return null;
 
+        // Persist format: b64(envelope)
+        return Base64.getEncoder().encodeToString(seal(plaintext.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public String decryptString(String stored) {
+        if (stored == null) return null;
+
+        Cipher cipher = borrowCipher();
         try {
-            byte[] iv = new byte[IV_LEN_BYTES];
-            random.nextBytes(iv);
+            return decryptString(cipher, stored, null);
+        } finally {
+            ciphers.offer(cipher);
+        }
+    }
 
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(TAG_LEN_BITS, iv));
+    // keys: key ids already resolved for this group of values, or null for a single value
+    private String decryptString(Cipher cipher, String stored, Map<Integer, SecretKey> keys) {
+        // Legacy rows: b64(iv):b64(ciphertext+tag). ':' is not part of the base64 alphabet.
+        if (stored.indexOf(':') >= 0) {
+            return new String(openLegacy(cipher, stored), StandardCharsets.UTF_8);
+        }
 
-            byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+        byte[] envelope;
+        try {
+            envelope = Base64.getDecoder().decode(stored);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Decryption failed", ex);
+        }
+        return new String(open(cipher, envelope, keys), StandardCharsets.UTF_8);
+    }
 
-            // Persist format: b64(iv):b64(ciphertext+tag)
-            return Base64.getEncoder().encodeToString(iv) + ":" + Base64.getEncoder().encodeToString(ciphertext);
-        } catch (Exception ex) {
+    public String encryptBigDecimal(BigDecimal value) {
+        if (value == null) return null;
+        return encryptString(value.toPlainString());
+    }
+
+    public BigDecimal decryptBigDecimal(String stored) {
+        if (stored == null) return null;
+        return new BigDecimal(decryptString(stored));
+    }
+
+    /**
+     * True when the stored value was not written with the active key (legacy format included).
+     */
+    public boolean needsRotation(String stored) {
+        if (stored == null) return false;
+        if (stored.indexOf(':') >= 0) return true;
+
+        // Only the header is needed: the first 4 base64 chars decode to version + key id + 1 IV byte
+        byte[] head = Base64.getDecoder().decode(stored.substring(0, Math.min(4, stored.length())));
+        return head.length < 2 || (head[1] & 0xFF) != keyRing.activeKeyId();
+    }
+
+    public boolean needsRotation(byte[] envelope) {
+        if (envelope == null) return false;
+        return envelope.length < 2 || (envelope[1] & 0xFF) != keyRing.activeKeyId();
+    }
+
+    /**
+     * Decrypts with whatever key wrote the value and encrypts again with the active key.
+     */
+    public String reencryptString(String stored) {
+        return encryptString(decryptString(stored));
+    }
+
+    public byte[] reseal(byte[] envelope) {
+        return seal(open(envelope));
+    }
+
+    /**
+     * Decrypts a batch of stored values. Duplicates are decrypted once; null inputs are skipped
+     * (so {@code result.get(null)} is null). Large batches are split across the crypto executor.
+     */
+    public Map<String, String> decryptAll(Collection<String> stored) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String s : stored) {
+            if (s != null) unique.add(s);
+        }
+
+        Map<String, String> out = new HashMap<>(unique.size() * 2);
+        if (unique.size() < parallelThreshold) {
+            for (String s : unique) out.put(s, decryptString(s));
+            return out;
+        }
+
+        // Fan out in chunks of parallelThreshold: each chunk runs on one borrowed cipher
+        List<String> values = new ArrayList<>(unique);
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += parallelThreshold) {
+            List<String> chunk = values.subList(from, Math.min(values.size(), from + parallelThreshold));
+            chunks.add(CompletableFuture.supplyAsync(() -> decryptGroup(chunk), batchExecutor));
+        }
+
+        int idx = 0;
+        for (CompletableFuture<List<String>> f : chunks) {
+            for (String plain : f.join()) {
+                out.put(values.get(idx++), plain);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Decrypts a group of fields of the same record, preserving order (null stays null).
+     * The group shares one cipher and looks each key id up once; only the per-field IV init is repeated.
+     */
+    public List<String> decryptFields(String... stored) {
+        return decryptGroup(Arrays.asList(stored));
+    }
+
+    private List<String> decryptGroup(List<String> stored) {
+        List<String> out = new ArrayList<>(stored.size());
+        Map<Integer, SecretKey> keys = new HashMap<>(4);
+        Cipher cipher = borrowCipher();
+        try {
+            for (String s : stored) out.add(s == null ? null : decryptString(cipher, s, keys));
+        } finally {
+            ciphers.offer(cipher);
+        }
+        return out;
+    }
+
+    /**
+     * Encrypts raw bytes into a binary envelope (no text encoding).
+     */
+    public byte[] seal(byte[] plaintext) {
+        try {
+            byte[] out = new byte[HEADER_LEN + plaintext.length + TAG_LEN_BYTES];
+            int keyId = keyRing.activeKeyId();
+            out[0] = ENVELOPE_V1;
+            out[1] = (byte) keyId;
+            byte[] iv = new byte[IV_LEN_BYTES];
+            random.nextBytes(iv);
+            System.arraycopy(iv, 0, out, 2, IV_LEN_BYTES);
+
+            Cipher cipher = borrowCipher();
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, keyRing.get(keyId), new GCMParameterSpec(TAG_LEN_BITS, out, 2, IV_LEN_BYTES));
+                cipher.doFinal(plaintext, 0, plaintext.length, out, HEADER_LEN);
+            } finally {
+                ciphers.offer(cipher);
+            }
+            return out;
+        } catch (GeneralSecurityException ex) {
             throw new IllegalStateException("Encryption failed", ex);
         }
     }
 
-    public String decryptString(String stored) {
-        if (stored == null) return null;
+    /**
+     * Decrypts an envelope produced by {@link #seal(byte[])}.
+     */
+    public byte[] open(byte[] envelope) {
+        Cipher cipher = borrowCipher();
+        try {
+            return open(cipher, envelope, null);
+        } finally {
+            ciphers.offer(cipher);
+        }
+    }
+
+    private byte[] open(Cipher cipher, byte[] envelope, Map<Integer, SecretKey> keys) {
+        if (envelope.length < HEADER_LEN + TAG_LEN_BYTES || envelope[0] != ENVELOPE_V1) {
+            throw new IllegalStateException("Decryption failed", new IllegalArgumentException("Invalid encrypted format"));
+        }
+
+        try {
+            int keyId = envelope[1] & 0xFF;
+            SecretKey key = keys == null ? keyRing.get(keyId) : keys.computeIfAbsent(keyId, keyRing::get);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LEN_BITS, envelope, 2, IV_LEN_BYTES));
+            return cipher.doFinal(envelope, HEADER_LEN, envelope.length - HEADER_LEN);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Decryption failed", ex);
+        }
+    }
 
+    private byte[] openLegacy(Cipher cipher, String stored) {
         try {
             String[] parts = stored.split(":", 2);
             if (parts.length != 2) {
@@ -55,23 +242,37 @@ public class CryptoService {
             byte[] iv = Base64.getDecoder().decode(parts[0]);
             byte[] ciphertext = Base64.getDecoder().decode(parts[1]);
 
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, aesKey, new GCMParameterSpec(TAG_LEN_BITS, iv));
-
-            byte[] plaintext = cipher.doFinal(ciphertext);
-            return new String(plaintext, StandardCharsets.UTF_8);
+            cipher.init(Cipher.DECRYPT_MODE, keyRing.legacy(), new GCMParameterSpec(TAG_LEN_BITS, iv));
+            return cipher.doFinal(ciphertext);
         } catch (Exception ex) {
             throw new IllegalStateException("Decryption failed", ex);
         }
     }
 
-    public String encryptBigDecimal(BigDecimal value) {
-        if (value == null) return null;
-        return encryptString(value.toPlainString());
+    private static ThreadPoolExecutor newBatchExecutor(int threads) {
+        AtomicInteger seq = new AtomicInteger();
+        // Bounded queue: when full the caller decrypts its own chunk instead of piling up work
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                r -> {
+                    Thread t = new Thread(r, "crypto-batch-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
-    public BigDecimal decryptBigDecimal(String stored) {
-        if (stored == null) return null;
-        return new BigDecimal(decryptString(stored));
+    // Returned with offer(): when the pool is full the extra instance is simply dropped
+    private Cipher borrowCipher() {
+        Cipher c = ciphers.poll();
+        return c != null ? c : newCipher();
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("AES-GCM not available", ex);
+        }
     }
 }
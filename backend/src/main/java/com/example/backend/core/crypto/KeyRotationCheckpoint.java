@@ -0,0 +1,72 @@
+package com.example.backend.core.crypto;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "crypto_rotation_checkpoints")
+public class KeyRotationCheckpoint {
+
+    @Id
+    @Column(name = "target_key_id", nullable = false, updatable = false)
+    private Integer targetKeyId;
+
+    @Column(name = "table_name", length = 64)
+    private String table; // table being rotated, null = users (the first one)
+
+    @Column(name = "last_id")
+    private UUID lastId; // keyset position in that table: next chunk starts after this id
+
+    @Column(name = "rows_scanned", nullable = false)
+    private long rowsScanned;
+
+    @Column(name = "rows_rewritten", nullable = false)
+    private long rowsRewritten;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private Instant startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public KeyRotationCheckpoint() {}
+
+    public static KeyRotationCheckpoint start(int targetKeyId) {
+        KeyRotationCheckpoint c = new KeyRotationCheckpoint();
+        c.targetKeyId = targetKeyId;
+        c.startedAt = Instant.now();
+        c.updatedAt = c.startedAt;
+        return c;
+    }
+
+    public void advance(UUID lastId, long scanned, long rewritten) {
+        this.lastId = lastId;
+        this.rowsScanned += scanned;
+        this.rowsRewritten += rewritten;
+        this.updatedAt = Instant.now();
+    }
+
+    public void nextTable(String table) {
+        this.table = table;
+        this.lastId = null;
+        this.updatedAt = Instant.now();
+    }
+
+    public void complete() {
+        this.completedAt = Instant.now();
+        this.updatedAt = this.completedAt;
+    }
+
+    public Integer getTargetKeyId() { return targetKeyId; }
+    public String getTable() { return table; }
+    public UUID getLastId() { return lastId; }
+    public long getRowsScanned() { return rowsScanned; }
+    public long getRowsRewritten() { return rowsRewritten; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public Instant getCompletedAt() { return completedAt; }
+}
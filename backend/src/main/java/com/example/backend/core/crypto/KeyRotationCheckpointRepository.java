@@ -0,0 +1,6 @@
+package com.example.backend.core.crypto;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface KeyRotationCheckpointRepository extends JpaRepository<KeyRotationCheckpoint, Integer> {
+}
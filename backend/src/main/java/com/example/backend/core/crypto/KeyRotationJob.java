@@ -0,0 +1,311 @@
+package com.example.backend.core.crypto;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background re-encryption after the active AES key changes: users.*_enc, then the balances kept next to
+ * the ledger and the Idempotency-Key outcomes ({@link #ENVELOPES}). Streams each table in keyset-paginated
+ * chunks (by id), each chunk rewritten in one short transaction with a JDBC batch, throttled to a rows/second
+ * budget and checkpointed so a restart resumes where it stopped.
+ * An old key can leave vaultbank.crypto.keys only once the rotation to the active key has completed
+ * (completed_at set in crypto_rotation_checkpoints): until then some column may still need it to decrypt.
+ */
+@Component
+public class KeyRotationJob implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyRotationJob.class);
+
+    private static final String NAME = "key-rotation";
+
+    private static final String USERS = "users";
+
+    // Key-id carrying columns outside users, rotated after it in this order
+    private record Envelopes(String table, String idColumn, String column) {}
+
+    private static final List<Envelopes> ENVELOPES = List.of(
+            new Envelopes("ledger_entries", "id", "balance_after_enc"),
+            new Envelopes("transfer_idempotency", "transfer_id", "new_balance_enc"));
+
+    private static final String SELECT_COLUMNS = "select id, first_name_enc, last_name_enc, phone_enc, balance_enc, balance_cents_enc from users ";
+
+    // Compare-and-set on the old ciphertexts: a row changed by a transfer in the meantime is not overwritten
+    private static final String UPDATE_CAS = "update users set first_name_enc = ?, last_name_enc = ?, phone_enc = ?, balance_enc = ?, balance_cents_enc = ?, version = version + 1 " +
+            "where id = ? and first_name_enc is not distinct from ? and last_name_enc is not distinct from ? " +
+            "and phone_enc is not distinct from ? and balance_enc is not distinct from ? and balance_cents_enc is not distinct from ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KeyRotationCheckpointRepository checkpointRepository;
+    private final CryptoService cryptoService;
+    private final AesKeyRing keyRing;
+    private final BackgroundJobs jobs;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int rowsPerSecond;
+
+    private final Counter scannedCounter;
+    private final Counter rewrittenCounter;
+    private final Counter conflictCounter;
+
+    // byte[] compares by reference, which is what reencrypt() needs: unchanged columns keep the same instance
+    private record Row(UUID id, String firstNameEnc, String lastNameEnc, String phoneEnc, String balanceEnc, byte[] balanceCentsEnc) {}
+
+    private record EnvelopeRow(UUID id, byte[] envelope) {}
+
+    public KeyRotationJob(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          KeyRotationCheckpointRepository checkpointRepository,
+                          CryptoService cryptoService,
+                          AesKeyRing keyRing,
+                          BackgroundJobs jobs,
+                          MeterRegistry meterRegistry,
+                          @Value("${vaultbank.crypto.rotation.enabled:false}") boolean enabled,
+                          @Value("${vaultbank.crypto.rotation.chunk-size:500}") int chunkSize,
+                          @Value("${vaultbank.crypto.rotation.rows-per-second:2000}") int rowsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.cryptoService = cryptoService;
+        this.keyRing = keyRing;
+        this.jobs = jobs;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.rowsPerSecond = Math.max(1, rowsPerSecond);
+
+        this.scannedCounter = Counter.builder("vaultbank.crypto.rotation.rows.scanned").register(meterRegistry);
+        this.rewrittenCounter = Counter.builder("vaultbank.crypto.rotation.rows.rewritten").register(meterRegistry);
+        this.conflictCounter = Counter.builder("vaultbank.crypto.rotation.rows.conflicts")
+                .description("Rows changed concurrently and rewritten under a row lock")
+                .register(meterRegistry);
+        meterRegistry.gauge("vaultbank.crypto.rotation.running", jobs, j -> j.isRunning(NAME) ? 1 : 0);
+    }
+
+    @Override
+    public String name() { return NAME; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    /**
+     * Starts a rotation to the active key now (after a key change without restart).
+     *
+     * @return false if one is already running
+     */
+    public boolean start() {
+        return jobs.start(this);
+    }
+
+    public boolean isRunning() { return jobs.isRunning(NAME); }
+
+    // A failed run resumes from the last checkpoint on the next start
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        int target = keyRing.activeKeyId();
+        KeyRotationCheckpoint checkpoint = checkpointRepository.findById(target)
+                .orElseGet(() -> checkpointRepository.save(KeyRotationCheckpoint.start(target)));
+
+        if (checkpoint.getCompletedAt() != null) {
+            log.info("Key rotation to key {} already completed at {}", target, checkpoint.getCompletedAt());
+            return;
+        }
+
+        log.info("Key rotation to key {} starting in {} after id {} ({} rows already scanned)",
+                target, table(checkpoint), checkpoint.getLastId(), checkpoint.getRowsScanned());
+
+        long startNanos = System.nanoTime();
+        long scannedBefore = checkpoint.getRowsScanned();
+
+        while (!worker.stopRequested()) {
+            String table = table(checkpoint);
+            KeyRotationCheckpoint advanced = table.equals(USERS)
+                    ? rotateUsers(checkpoint)
+                    : rotateEnvelopes(envelopes(table), checkpoint);
+
+            if (advanced == null) {
+                String next = nextTable(table);
+                if (next == null) {
+                    checkpoint.complete();
+                    checkpointRepository.save(checkpoint);
+                    log.info("Key rotation to key {} completed: {} rows scanned, {} rewritten",
+                            target, checkpoint.getRowsScanned(), checkpoint.getRowsRewritten());
+                    return;
+                }
+                checkpoint.nextTable(next);
+                checkpoint = checkpointRepository.save(checkpoint);
+                continue;
+            }
+
+            checkpoint = advanced;
+            worker.pace(startNanos, checkpoint.getRowsScanned() - scannedBefore, rowsPerSecond);
+        }
+    }
+
+    /**
+     * Rewrites the next chunk of users and advances the checkpoint in the same transaction.
+     *
+     * @return the saved checkpoint, or null if the table has no rows left
+     */
+    private KeyRotationCheckpoint rotateUsers(KeyRotationCheckpoint cp) {
+        List<Row> rows = fetchChunk(cp.getLastId());
+        if (rows.isEmpty()) return null;
+
+        return transactionTemplate.execute(status -> {
+            int rewritten = rewriteChunk(rows);
+            cp.advance(rows.get(rows.size() - 1).id(), rows.size(), rewritten);
+            return checkpointRepository.save(cp);
+        });
+    }
+
+    /**
+     * Like {@link #rotateUsers}, for a single envelope column. These rows are written once and never updated:
+     * a compare-and-set miss means the row was deleted meanwhile (Idempotency-Key retention), nothing to redo.
+     */
+    private KeyRotationCheckpoint rotateEnvelopes(Envelopes t, KeyRotationCheckpoint cp) {
+        String select = "select " + t.idColumn() + ", " + t.column() + " from " + t.table() + " ";
+        UUID after = cp.getLastId();
+        List<EnvelopeRow> rows = after == null
+                ? jdbcTemplate.query(select + "order by " + t.idColumn() + " limit ?",
+                    (rs, i) -> new EnvelopeRow(rs.getObject(1, UUID.class), rs.getBytes(2)), chunkSize)
+                : jdbcTemplate.query(select + "where " + t.idColumn() + " > ? order by " + t.idColumn() + " limit ?",
+                    (rs, i) -> new EnvelopeRow(rs.getObject(1, UUID.class), rs.getBytes(2)), after, chunkSize);
+        if (rows.isEmpty()) return null;
+
+        List<Object[]> args = new ArrayList<>();
+        for (EnvelopeRow r : rows) {
+            if (cryptoService.needsRotation(r.envelope())) args.add(new Object[]{cryptoService.reseal(r.envelope()), r.id(), r.envelope()});
+        }
+
+        return transactionTemplate.execute(status -> {
+            int rewritten = 0;
+            if (!args.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate("update " + t.table() + " set " + t.column() + " = ? " +
+                        "where " + t.idColumn() + " = ? and " + t.column() + " = ?", args);
+                for (int c : counts) rewritten += c > 0 ? 1 : 0;
+            }
+            scannedCounter.increment(rows.size());
+            rewrittenCounter.increment(rewritten);
+            cp.advance(rows.get(rows.size() - 1).id(), rows.size(), rewritten);
+            return checkpointRepository.save(cp);
+        });
+    }
+
+    private static String table(KeyRotationCheckpoint cp) {
+        return cp.getTable() == null ? USERS : cp.getTable();
+    }
+
+    private static String nextTable(String table) {
+        if (table.equals(USERS)) return ENVELOPES.get(0).table();
+        for (int i = 0; i < ENVELOPES.size() - 1; i++) {
+            if (ENVELOPES.get(i).table().equals(table)) return ENVELOPES.get(i + 1).table();
+        }
+        return null;
+    }
+
+    private static Envelopes envelopes(String table) {
+        for (Envelopes e : ENVELOPES) {
+            if (e.table().equals(table)) return e;
+        }
+        throw new IllegalStateException("Unknown table in the rotation checkpoint: " + table);
+    }
+
+    private List<Row> fetchChunk(UUID afterId) {
+        if (afterId == null) {
+            return jdbcTemplate.query(SELECT_COLUMNS + "order by id limit ?", (rs, i) -> mapRow(rs), chunkSize);
+        }
+        return jdbcTemplate.query(SELECT_COLUMNS + "where id > ? order by id limit ?", (rs, i) -> mapRow(rs), afterId, chunkSize);
+    }
+
+    private int rewriteChunk(List<Row> rows) {
+        List<Row> originals = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+
+        for (Row r : rows) {
+            Row updated = reencrypt(r);
+            if (updated == null) continue;
+            originals.add(r);
+            args.add(casArgs(updated, r));
+        }
+        scannedCounter.increment(rows.size());
+        if (args.isEmpty()) return 0;
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_CAS, args);
+
+        int rewritten = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                rewritten++;
+                continue;
+            }
+            // Lost the race with a concurrent write: lock this one row and rewrite from its current state
+            conflictCounter.increment();
+            if (rewriteLocked(originals.get(i).id())) rewritten++;
+        }
+        rewrittenCounter.increment(rewritten);
+        return rewritten;
+    }
+
+    private boolean rewriteLocked(UUID id) {
+        List<Row> current = jdbcTemplate.query(SELECT_COLUMNS + "where id = ? for update", (rs, i) -> mapRow(rs), id);
+        if (current.isEmpty()) return false;
+
+        Row r = current.get(0);
+        Row updated = reencrypt(r);
+        if (updated == null) return false;
+        return jdbcTemplate.update(UPDATE_CAS, casArgs(updated, r)) == 1;
+    }
+
+    /**
+     * @return the row with every stale column re-encrypted, or null if nothing needs rewriting
+     */
+    private Row reencrypt(Row r) {
+        Row updated = new Row(r.id(),
+                rotate(r.firstNameEnc()),
+                rotate(r.lastNameEnc()),
+                rotate(r.phoneEnc()),
+                rotate(r.balanceEnc()),
+                rotate(r.balanceCentsEnc()));
+        return updated.equals(r) ? null : updated;
+    }
+
+    private String rotate(String stored) {
+        return cryptoService.needsRotation(stored) ? cryptoService.reencryptString(stored) : stored;
+    }
+
+    private byte[] rotate(byte[] envelope) {
+        return cryptoService.needsRotation(envelope) ? cryptoService.reseal(envelope) : envelope;
+    }
+
+    private static Object[] casArgs(Row updated, Row original) {
+        return new Object[]{
+                updated.firstNameEnc(), updated.lastNameEnc(), updated.phoneEnc(), updated.balanceEnc(), updated.balanceCentsEnc(),
+                original.id(),
+                original.firstNameEnc(), original.lastNameEnc(), original.phoneEnc(), original.balanceEnc(), original.balanceCentsEnc()
+        };
+    }
+
+    private static Row mapRow(ResultSet rs) throws SQLException {
+        return new Row(
+                rs.getObject("id", UUID.class),
+                rs.getString("first_name_enc"),
+                rs.getString("last_name_enc"),
+                rs.getString("phone_enc"),
+                rs.getString("balance_enc"),
+                rs.getBytes("balance_cents_enc"));
+    }
+}
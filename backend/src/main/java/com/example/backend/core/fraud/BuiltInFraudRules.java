@@ -0,0 +1,115 @@
+package com.example.backend.core.fraud;
+
+import org.springframework.core.env.Environment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The standard rules, with their thresholds read from vaultbank.fraud.rules.* (defaults are the historical values).
+ */
+final class BuiltInFraudRules {
+
+    private static final String PREFIX = "vaultbank.fraud.rules.";
+
+    private BuiltInFraudRules() {}
+
+    static List<FraudRule> create(Environment env, List<Duration> velocityWindows) {
+        List<FraudRule> rules = new ArrayList<>(5);
+        rules.add(new AmountRule(
+                decimal(env, "amount.high-amount", "5000.00"), integer(env, "amount.high-score", 60),
+                decimal(env, "amount.medium-amount", "1500.00"), integer(env, "amount.medium-score", 35)));
+        rules.add(new NightRule(
+                ZoneId.of(env.getProperty(PREFIX + "night.zone", "Europe/Rome")),
+                integer(env, "night.start-hour", 0), integer(env, "night.end-hour", 6), integer(env, "night.score", 25)));
+
+        Duration window = env.getProperty(PREFIX + "velocity.window", Duration.class, Duration.ofSeconds(60));
+        if (!velocityWindows.contains(window)) {
+            throw new IllegalStateException("vaultbank.fraud.velocity.windows must include " + window.toSeconds() + "s");
+        }
+        rules.add(new VelocityRule(window,
+                integer(env, "velocity.high-count", 5), integer(env, "velocity.high-score", 80),
+                integer(env, "velocity.medium-count", 3), integer(env, "velocity.medium-score", 40)));
+        rules.add(new NewBeneficiaryRule(
+                decimal(env, "new-beneficiary.min-amount", "500.00"), integer(env, "new-beneficiary.score", 30)));
+        rules.add(new AccountAgeRule(
+                env.getProperty(PREFIX + "account-age.min-age", Duration.class, Duration.ofHours(24)),
+                decimal(env, "account-age.min-amount", "1500.00"), integer(env, "account-age.score", 15)));
+        return rules;
+    }
+
+    private static int integer(Environment env, String key, int def) {
+        return env.getProperty(PREFIX + key, Integer.class, def);
+    }
+
+    private static BigDecimal decimal(Environment env, String key, String def) {
+        return new BigDecimal(env.getProperty(PREFIX + key, def));
+    }
+
+    record AmountRule(BigDecimal highAmount, int highScore, BigDecimal mediumAmount, int mediumScore) implements FraudRule {
+        @Override
+        public String name() { return "amount"; }
+
+        @Override
+        public FraudDecision.Contribution evaluate(Context ctx) {
+            if (ctx.amount().compareTo(highAmount) >= 0) return new FraudDecision.Contribution(name(), highScore, "High amount");
+            if (ctx.amount().compareTo(mediumAmount) >= 0) return new FraudDecision.Contribution(name(), mediumScore, "Unusually high amount");
+            if (ctx.batchAmount().compareTo(highAmount) >= 0) return new FraudDecision.Contribution(name(), highScore, "High batch total");
+            if (ctx.batchAmount().compareTo(mediumAmount) >= 0) return new FraudDecision.Contribution(name(), mediumScore, "Unusually high batch total");
+            return null;
+        }
+    }
+
+    record NightRule(ZoneId zone, int startHour, int endHour, int score) implements FraudRule {
+        @Override
+        public String name() { return "night"; }
+
+        @Override
+        public FraudDecision.Contribution evaluate(Context ctx) {
+            int hour = ZonedDateTime.ofInstant(ctx.now(), zone).getHour();
+            if (hour >= startHour && hour < endHour) return new FraudDecision.Contribution(name(), score, "Unusual time (night hours)");
+            return null;
+        }
+    }
+
+    record VelocityRule(Duration window, int highCount, int highScore, int mediumCount, int mediumScore) implements FraudRule {
+        @Override
+        public String name() { return "velocity"; }
+
+        @Override
+        public FraudDecision.Contribution evaluate(Context ctx) {
+            long count = ctx.features().velocity(window).count();
+            if (count >= highCount) return new FraudDecision.Contribution(name(), highScore, "High transfer velocity");
+            if (count >= mediumCount) return new FraudDecision.Contribution(name(), mediumScore, "Unusual transfer velocity");
+            return null;
+        }
+    }
+
+    record NewBeneficiaryRule(BigDecimal minAmount, int score) implements FraudRule {
+        @Override
+        public String name() { return "new-beneficiary"; }
+
+        @Override
+        public FraudDecision.Contribution evaluate(Context ctx) {
+            if (ctx.amount().compareTo(minAmount) < 0) return null;
+            if (ctx.features().knownBeneficiary()) return null;
+            return new FraudDecision.Contribution(name(), score, "New beneficiary with medium/high amount");
+        }
+    }
+
+    record AccountAgeRule(Duration minAge, BigDecimal minAmount, int score) implements FraudRule {
+        @Override
+        public String name() { return "account-age"; }
+
+        @Override
+        public FraudDecision.Contribution evaluate(Context ctx) {
+            if (ctx.batchAmount().compareTo(minAmount) < 0) return null;
+            if (ctx.features().accountAge(ctx.now()).compareTo(minAge) >= 0) return null;
+            return new FraudDecision.Contribution(name(), score, "Recently opened account with medium/high amount");
+        }
+    }
+}
@@ -1,7 +1,28 @@
 package com.example.backend.core.fraud;
 
+import java.time.Instant;
 import java.util.List;
 
-public record FraudDecision(Action action, int riskScore, List<String> reasons) {
+/**
+ * Outcome of {@link FraudService#evaluate}: reasons are the contributions' reasons, in rule order.
+ * lockedUntil is set (and no rule has run) when the account is temporarily locked.
+ */
+public record FraudDecision(Action action, int riskScore, List<String> reasons, List<Contribution> contributions,
+                            Instant lockedUntil) {
     public enum Action { ALLOW, STEP_UP, BLOCK }
-}
\ No newline at end of file
+
+    /**
+     * Points added by one rule that fired.
+     */
+    public record Contribution(String rule, int score, String reason) {}
+
+    public static FraudDecision of(Action action, List<Contribution> contributions) {
+        int score = 0;
+        for (Contribution c : contributions) score += c.score();
+        return new FraudDecision(action, score, contributions.stream().map(Contribution::reason).toList(), List.copyOf(contributions), null);
+    }
+
+    public static FraudDecision locked(Instant until) {
+        return new FraudDecision(Action.BLOCK, 0, List.of("Account temporarily locked"), List.of(), until);
+    }
+}
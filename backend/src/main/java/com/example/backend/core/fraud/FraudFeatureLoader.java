@@ -0,0 +1,183 @@
+package com.example.backend.core.fraud;
+
+import com.example.backend.core.beneficiary.BeneficiaryIndex;
+import com.example.backend.core.transfer.TransferRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gathers the {@link FraudFeatures} of an evaluation. Signals come from the in-memory stores (velocity rings,
+ * beneficiary sets, lock registry, account creation time); whatever is missing for the user is read with
+ * one native query (account row, outgoing transfers over the longest velocity window, beneficiary IBANs)
+ * that fills every store at once. At most one round trip per evaluation, none once the user is loaded.
+ * The lock comes from the same place, so a transfer needs no separate lock lookup.
+ */
+@Component
+public class FraudFeatureLoader {
+
+    private static final String FETCH = "select u.created_at, u.locked_until, o.created_at as out_at, o.amount as out_amount, b.ibans " +
+            "from users u " +
+            "left join lateral (select array_agg(t.created_at) as created_at, array_agg(t.amount) as amount " +
+            "from transfers t where t.from_user_id = u.id and t.created_at > ?) o on true " +
+            "left join lateral (select array_agg(x.iban) as ibans from beneficiaries x where x.user_id = u.id) b on true " +
+            "where u.id = ?";
+
+    private static final String ACCOUNT = "select created_at, locked_until from users where id = ?";
+
+    private record Outgoing(Instant at, BigDecimal value) implements TransferRepository.OutgoingAmount {
+        @Override public Instant getCreatedAt() { return at; }
+        @Override public BigDecimal getAmount() { return value; }
+    }
+
+    private record Row(Instant createdAt, Instant lockedUntil, List<Outgoing> outgoing, List<String> ibans) {
+        static final Row MISSING = new Row(null, null, List.of(), List.of());
+    }
+
+    // One evaluation: the query runs the first time a store asks for it, then the row is reused
+    private final class Fetch {
+        private final UUID userId;
+        private final Instant now;
+        private Row row;
+
+        Fetch(UUID userId, Instant now) {
+            this.userId = userId;
+            this.now = now;
+        }
+
+        Row row() {
+            if (row == null) row = fetch(userId, now);
+            return row;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VelocityTracker velocityTracker;
+    private final BeneficiaryIndex beneficiaryIndex;
+    private final LockRegistry lockRegistry;
+    private final Cache<UUID, Instant> accountsCreatedAt;
+    private final Counter fetches;
+
+    public FraudFeatureLoader(JdbcTemplate jdbcTemplate,
+                              VelocityTracker velocityTracker,
+                              BeneficiaryIndex beneficiaryIndex,
+                              LockRegistry lockRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${vaultbank.fraud.features.max-users:200000}") long maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.velocityTracker = velocityTracker;
+        this.beneficiaryIndex = beneficiaryIndex;
+        this.lockRegistry = lockRegistry;
+        this.accountsCreatedAt = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+        this.fetches = Counter.builder("vaultbank.fraud.features.fetches")
+                .description("Evaluations that read the DB (user not fully loaded in memory)")
+                .register(meterRegistry);
+    }
+
+    public FraudFeatures load(UUID userId, String toIban, Instant now) {
+        Fetch fetch = new Fetch(userId, now);
+
+        // Velocity first: a cold user is fetched inside its cache load, so a transfer committing meanwhile
+        // is applied after the load and never lost. The beneficiary set reuses the row: stamped before the
+        // fetch, so a set that may miss such a transfer is not cached.
+        long beneficiaryStamp = beneficiaryIndex.stamp(userId);
+        List<VelocityTracker.Velocity> velocities = velocityTracker.velocities(userId, now, () -> fetch.row().outgoing());
+        boolean knownBeneficiary = beneficiaryIndex.isKnown(userId, toIban, beneficiaryStamp, () -> fetch.row().ibans());
+        Instant createdAt = accountsCreatedAt.get(userId, id -> fetch.row().createdAt());
+
+        Instant lockedUntil = lockRegistry.isLoaded() ? lockRegistry.lockedUntil(userId, now) : fetch.row().lockedUntil();
+        if (lockedUntil != null && !lockedUntil.isAfter(now)) lockedUntil = null;
+
+        return new FraudFeatures(createdAt, lockedUntil, velocities, knownBeneficiary);
+    }
+
+    /**
+     * Lock of an account outside a transfer (step-up): creation time and lock only, no transfer history.
+     * Known accounts are answered from memory once the lock registry has loaded.
+     *
+     * @return null if not locked
+     * @throws IllegalArgumentException if the account does not exist
+     */
+    public Instant lockedUntil(UUID userId, Instant now) {
+        Instant[] row = new Instant[2];
+        Instant createdAt = accountsCreatedAt.get(userId, id -> readAccount(id, row));
+        if (createdAt == null) throw new IllegalArgumentException("User not found");
+
+        Instant lockedUntil;
+        if (lockRegistry.isLoaded()) {
+            lockedUntil = lockRegistry.lockedUntil(userId, now);
+        } else {
+            if (row[0] == null) readAccount(userId, row);
+            lockedUntil = row[1];
+        }
+        return lockedUntil != null && lockedUntil.isAfter(now) ? lockedUntil : null;
+    }
+
+    /**
+     * A new account: nothing to read for it, every store starts empty.
+     */
+    public void registered(UUID userId, Instant createdAt) {
+        accountsCreatedAt.asMap().putIfAbsent(userId, createdAt);
+        velocityTracker.startEmpty(userId);
+        beneficiaryIndex.startEmpty(userId);
+    }
+
+    // row[0] = created_at, row[1] = locked_until; both null if the account does not exist
+    private Instant readAccount(UUID userId, Instant[] row) {
+        jdbcTemplate.query(ACCOUNT, (RowCallbackHandler) rs -> {
+            row[0] = rs.getObject("created_at", OffsetDateTime.class).toInstant();
+            OffsetDateTime lockedUntil = rs.getObject("locked_until", OffsetDateTime.class);
+            row[1] = lockedUntil != null ? lockedUntil.toInstant() : null;
+        }, userId);
+        return row[0];
+    }
+
+    private Row fetch(UUID userId, Instant now) {
+        fetches.increment();
+        OffsetDateTime since = OffsetDateTime.ofInstant(now.minus(velocityTracker.longest()), ZoneOffset.UTC);
+        Row row = jdbcTemplate.query(FETCH, rs -> rs.next() ? row(rs) : null, since, userId);
+        return row != null ? row : Row.MISSING;
+    }
+
+    private static Row row(ResultSet rs) throws SQLException {
+        OffsetDateTime lockedUntil = rs.getObject("locked_until", OffsetDateTime.class);
+
+        Object[] at = array(rs.getArray("out_at"));
+        Object[] amounts = array(rs.getArray("out_amount"));
+        List<Outgoing> outgoing = new ArrayList<>(at.length);
+        for (int i = 0; i < at.length; i++) {
+            outgoing.add(new Outgoing(((Timestamp) at[i]).toInstant(), (BigDecimal) amounts[i]));
+        }
+
+        List<String> ibans = Arrays.stream(array(rs.getArray("ibans"))).map(String.class::cast).toList();
+
+        return new Row(rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+                lockedUntil != null ? lockedUntil.toInstant() : null,
+                outgoing, ibans);
+    }
+
+    // array_agg over no rows is null
+    private static Object[] array(Array a) throws SQLException {
+        return a == null ? new Object[0] : (Object[]) a.getArray();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.backend.core.fraud;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every DB-backed signal the fraud rules use, gathered by {@link FraudFeatureLoader} before any rule runs.
+ *
+ * @param accountCreatedAt null if the account does not exist
+ * @param lockedUntil      null if not locked at evaluation time
+ * @param velocities       outgoing velocity in every configured window, shortest first
+ */
+public record FraudFeatures(Instant accountCreatedAt,
+                            Instant lockedUntil,
+                            List<VelocityTracker.Velocity> velocities,
+                            boolean knownBeneficiary) {
+
+    public VelocityTracker.Velocity velocity(Duration window) {
+        for (VelocityTracker.Velocity v : velocities) {
+            if (v.window().equals(window)) return v;
+        }
+        throw new IllegalArgumentException("Velocity window not configured: " + window);
+    }
+
+    /**
+     * The same features with transfers not committed yet (earlier items of a batch) added to every velocity window.
+     */
+    public FraudFeatures withPending(long count, BigDecimal amount) {
+        if (count == 0) return this;
+        List<VelocityTracker.Velocity> out = new ArrayList<>(velocities.size());
+        for (VelocityTracker.Velocity v : velocities) {
+            out.add(new VelocityTracker.Velocity(v.window(), v.count() + count, v.amount().add(amount)));
+        }
+        return new FraudFeatures(accountCreatedAt, lockedUntil, List.copyOf(out), knownBeneficiary);
+    }
+
+    /**
+     * @return null if the account does not exist
+     */
+    public Duration accountAge(Instant now) {
+        return accountCreatedAt == null ? null : Duration.between(accountCreatedAt, now);
+    }
+}
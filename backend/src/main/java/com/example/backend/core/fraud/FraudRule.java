@@ -0,0 +1,39 @@
+package com.example.backend.core.fraud;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One fraud check. Built-in rules are configured under vaultbank.fraud.rules.&lt;name&gt;;
+ * any other bean implementing this interface is added to the plan after them.
+ * A rule can be switched off with vaultbank.fraud.rules.&lt;name&gt;.enabled=false.
+ */
+public interface FraudRule {
+
+    /**
+     * @param batchAmount this amount plus the earlier items of the same batch (equal to amount for a single transfer);
+     *                    the features already count those items as outgoing transfers
+     */
+    record Context(UUID userId, String toIban, BigDecimal amount, Instant now, FraudFeatures features, BigDecimal batchAmount) {
+        public Context(UUID userId, String toIban, BigDecimal amount, Instant now, FraudFeatures features) {
+            this(userId, toIban, amount, now, features, amount);
+        }
+    }
+
+    /**
+     * Metric tag and config key: lowercase, dash separated.
+     */
+    String name();
+
+    /**
+     * Rules that call the DB or another service themselves (the built-in ones only read
+     * {@link Context#features()}) run concurrently with each other.
+     */
+    default boolean ioBound() { return false; }
+
+    /**
+     * @return the points added by this rule, or null when it does not fire
+     */
+    FraudDecision.Contribution evaluate(Context ctx);
+}
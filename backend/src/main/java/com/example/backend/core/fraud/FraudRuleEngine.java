@@ -0,0 +1,189 @@
+package com.example.backend.core.fraud;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the fraud rules through an immutable plan compiled from configuration at startup and on {@link #reload()}:
+ * enabled rules in order, their meters, and the score cutoffs. The user's {@link FraudFeatures} are loaded once
+ * up front; rules that only read them run on the caller's thread, I/O-bound custom rules run concurrently
+ * on virtual threads when there is more than one (vaultbank.fraud.rules.parallel).
+ * Per rule: vaultbank.fraud.rule.latency (timer) and vaultbank.fraud.rule.hits, tagged with the rule name.
+ */
+@Component
+public class FraudRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FraudRuleEngine.class);
+
+    private record Step(int index, FraudRule rule, Timer latency, Counter hits) {}
+
+    private record Plan(List<Step> inline, List<Step> concurrent, int size,
+                        int stepUpScore, int blockScore, BigDecimal blockAmount) {}
+
+    /**
+     * The plan in use, as shown by the fraudrules actuator endpoint.
+     */
+    public record Summary(List<String> rules, List<String> concurrent, int stepUpScore, int blockScore, BigDecimal blockAmount) {}
+
+    private final Environment env;
+    private final VelocityTracker velocityTracker;
+    private final FraudFeatureLoader featureLoader;
+    private final ObjectProvider<FraudRule> customRules;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile Plan plan;
+
+    public FraudRuleEngine(Environment env,
+                           VelocityTracker velocityTracker,
+                           FraudFeatureLoader featureLoader,
+                           ObjectProvider<FraudRule> customRules,
+                           MeterRegistry meterRegistry) {
+        this.env = env;
+        this.velocityTracker = velocityTracker;
+        this.featureLoader = featureLoader;
+        this.customRules = customRules;
+        this.meterRegistry = meterRegistry;
+        this.plan = compile();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Re-reads vaultbank.fraud.rules.* and swaps the plan; evaluations in flight finish on the old one.
+     * Called by {@link FraudRulesEndpoint} after a threshold change.
+     */
+    public void reload() {
+        plan = compile();
+    }
+
+    public Summary summary() {
+        Plan p = plan;
+        List<String> rules = new ArrayList<>(p.size());
+        for (Step s : p.inline()) rules.add(s.rule().name());
+        for (Step s : p.concurrent()) rules.add(s.rule().name());
+        List<String> concurrent = p.concurrent().stream().map(s -> s.rule().name()).toList();
+        return new Summary(List.copyOf(rules), concurrent, p.stepUpScore(), p.blockScore(), p.blockAmount());
+    }
+
+    /**
+     * Loads the user's {@link FraudFeatures} (at most one query) and runs the plan on them.
+     * A locked account gets {@link FraudDecision#locked} without running any rule.
+     */
+    public FraudDecision evaluate(UUID userId, String toIban, BigDecimal amount, Instant now) {
+        return evaluate(new FraudRule.Context(userId, toIban, amount, now, featureLoader.load(userId, toIban, now)));
+    }
+
+    /**
+     * Scores the items of a batch in order, each one as if the earlier ones were already executed:
+     * they count towards velocity, and amount thresholds also apply to the running total.
+     */
+    public List<FraudDecision> evaluateBatch(UUID userId, List<FraudService.Payment> items, Instant now) {
+        List<FraudDecision> out = new ArrayList<>(items.size());
+        BigDecimal before = BigDecimal.ZERO;
+        for (int i = 0; i < items.size(); i++) {
+            FraudService.Payment item = items.get(i);
+            FraudFeatures features = featureLoader.load(userId, item.toIban(), now).withPending(i, before);
+            before = before.add(item.amount());
+            out.add(evaluate(new FraudRule.Context(userId, item.toIban(), item.amount(), now, features, before)));
+        }
+        return out;
+    }
+
+    private FraudDecision evaluate(FraudRule.Context ctx) {
+        FraudFeatures f = ctx.features();
+        if (f.accountCreatedAt() == null) throw new IllegalArgumentException("User not found");
+        if (f.lockedUntil() != null) return FraudDecision.locked(f.lockedUntil());
+
+        Plan p = plan;
+        FraudDecision.Contribution[] out = new FraudDecision.Contribution[p.size()];
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>(p.concurrent().size());
+        for (Step s : p.concurrent()) pending.add(CompletableFuture.runAsync(() -> run(s, ctx, out), executor));
+        for (Step s : p.inline()) run(s, ctx, out);
+        for (CompletableFuture<Void> fut : pending) {
+            try {
+                fut.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException re) throw re;
+                throw ex;
+            }
+        }
+
+        List<FraudDecision.Contribution> fired = new ArrayList<>(out.length);
+        int score = 0;
+        for (FraudDecision.Contribution c : out) {
+            if (c == null) continue;
+            fired.add(c);
+            score += c.score();
+        }
+
+        if (score >= p.blockScore() || ctx.batchAmount().compareTo(p.blockAmount()) >= 0) {
+            return FraudDecision.of(FraudDecision.Action.BLOCK, fired);
+        }
+        if (score >= p.stepUpScore()) {
+            return FraudDecision.of(FraudDecision.Action.STEP_UP, fired);
+        }
+        return FraudDecision.of(FraudDecision.Action.ALLOW, fired);
+    }
+
+    private static void run(Step s, FraudRule.Context ctx, FraudDecision.Contribution[] out) {
+        long start = System.nanoTime();
+        FraudDecision.Contribution c = s.rule().evaluate(ctx);
+        s.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (c != null) s.hits().increment();
+        out[s.index()] = c;
+    }
+
+    private Plan compile() {
+        List<FraudRule> rules = new ArrayList<>(BuiltInFraudRules.create(env, velocityTracker.windows()));
+        customRules.orderedStream().forEach(rules::add);
+
+        List<Step> inline = new ArrayList<>();
+        List<Step> io = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (FraudRule rule : rules) {
+            if (!env.getProperty("vaultbank.fraud.rules." + rule.name() + ".enabled", Boolean.class, true)) continue;
+            if (names.contains(rule.name())) throw new IllegalStateException("Duplicate fraud rule name: " + rule.name());
+
+            Step s = new Step(names.size(), rule,
+                    Timer.builder("vaultbank.fraud.rule.latency").tag("rule", rule.name()).register(meterRegistry),
+                    Counter.builder("vaultbank.fraud.rule.hits").tag("rule", rule.name()).register(meterRegistry));
+            names.add(rule.name());
+            (rule.ioBound() ? io : inline).add(s);
+        }
+
+        // A single I/O rule gains nothing from another thread
+        boolean parallel = env.getProperty("vaultbank.fraud.rules.parallel", Boolean.class, true) && io.size() > 1;
+        if (!parallel) inline.addAll(io);
+
+        Plan p = new Plan(List.copyOf(inline), parallel ? List.copyOf(io) : List.of(), names.size(),
+                env.getProperty("vaultbank.fraud.step-up-score", Integer.class, 45),
+                env.getProperty("vaultbank.fraud.block-score", Integer.class, 90),
+                new BigDecimal(env.getProperty("vaultbank.fraud.block-amount", "10000.00")));
+        log.info("Fraud rules: {} ({} concurrent), step-up at {}, block at {} or amount >= {}",
+                names, p.concurrent().size(), p.stepUpScore(), p.blockScore(), p.blockAmount());
+        return p;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.backend.core.fraud;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * /actuator/fraudrules: the plan in use (GET), a fraud setting changed without a restart (POST {"key", "value"}),
+ * back to the configured values (DELETE). Overrides live in memory, in front of every other property source,
+ * and are lost on restart. Only vaultbank.fraud.rules.* and the score cutoffs can be changed.
+ */
+@Component
+@Endpoint(id = "fraudrules")
+public class FraudRulesEndpoint {
+
+    private static final String SOURCE = "fraudRuleOverrides";
+
+    private final FraudRuleEngine engine;
+    private final Map<String, Object> overrides = new ConcurrentHashMap<>();
+
+    public FraudRulesEndpoint(FraudRuleEngine engine, ConfigurableEnvironment env) {
+        this.engine = engine;
+        env.getPropertySources().addFirst(new MapPropertySource(SOURCE, overrides));
+    }
+
+    @ReadOperation
+    public FraudRuleEngine.Summary plan() {
+        return engine.summary();
+    }
+
+    @WriteOperation
+    public synchronized FraudRuleEngine.Summary set(String key, String value) {
+        if (!key.startsWith("vaultbank.fraud.rules.")
+                && !key.equals("vaultbank.fraud.step-up-score")
+                && !key.equals("vaultbank.fraud.block-score")
+                && !key.equals("vaultbank.fraud.block-amount")) {
+            throw new InvalidEndpointRequestException("Not a fraud rule setting: " + key, "unknown key");
+        }
+
+        Object previous = overrides.put(key, value);
+        try {
+            engine.reload();
+        } catch (RuntimeException ex) {
+            // A value the plan cannot compile with: keep the running plan
+            if (previous == null) overrides.remove(key);
+            else overrides.put(key, previous);
+            throw new InvalidEndpointRequestException("Invalid value for " + key + ": " + ex.getMessage(), "invalid value");
+        }
+        return engine.summary();
+    }
+
+    @DeleteOperation
+    public synchronized FraudRuleEngine.Summary reset() {
+        overrides.clear();
+        engine.reload();
+        return engine.summary();
+    }
+}
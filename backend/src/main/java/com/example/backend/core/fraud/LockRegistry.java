@@ -0,0 +1,143 @@
+package com.example.backend.core.fraud;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users under a temporary lock, in memory: the per-request lock check reads this map, never the users row.
+ * Filled at startup, updated by {@link FraudService#applyTemporaryLock} on commit and re-read every sweep
+ * (locks applied by other instances show up within one interval). The same thread clears expired
+ * locked_until/lock_reason in batches. Until the first load completes {@link #isLoaded()} is false
+ * and callers read the row.
+ */
+@Component
+public class LockRegistry implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LockRegistry.class);
+
+    private static final String ACTIVE = "select id, locked_until from users where locked_until > ?";
+
+    // Rows being written by a transfer are skipped and cleared on a later sweep
+    private static final String SWEEP = "update users set locked_until = null, lock_reason = null, version = version + 1 " +
+            "where id in (select id from users where locked_until <= ? order by locked_until limit ? for update skip locked) " +
+            "and locked_until <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Duration interval;
+    private final int batchSize;
+
+    private final ConcurrentHashMap<UUID, Instant> locks = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private final Counter cleared;
+
+    public LockRegistry(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${vaultbank.fraud.locks.enabled:true}") boolean enabled,
+                        @Value("${vaultbank.fraud.locks.sweep-interval:5s}") Duration interval,
+                        @Value("${vaultbank.fraud.locks.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.batchSize = Math.max(1, batchSize);
+
+        this.cleared = Counter.builder("vaultbank.fraud.locks.cleared")
+                .description("Expired account locks cleared by the sweeper")
+                .register(meterRegistry);
+        meterRegistry.gauge("vaultbank.fraud.locks.active", locks, ConcurrentHashMap::size);
+    }
+
+    @Override
+    public String name() { return "lock-sweeper"; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    public boolean isLoaded() { return loaded; }
+
+    /**
+     * @return the end of the user's lock, or null if not locked at {@code now}
+     */
+    public Instant lockedUntil(UUID userId, Instant now) {
+        Instant until = locks.get(userId);
+        return until != null && until.isAfter(now) ? until : null;
+    }
+
+    /**
+     * Registers a lock once the current transaction commits (right away outside a transaction).
+     */
+    public void putAfterCommit(UUID userId, Instant until) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(userId, until);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(userId, until);
+            }
+        });
+    }
+
+    private void put(UUID userId, Instant until) {
+        locks.merge(userId, until, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        try {
+            refresh(Instant.now());
+            loaded = true;
+            log.info("Lock registry loaded: {} locked accounts", locks.size());
+        } catch (RuntimeException ex) {
+            log.error("Lock registry load failed; lock checks keep reading the users row", ex);
+            return;
+        }
+
+        while (!worker.stopRequested()) {
+            Thread.sleep(interval.toMillis());
+            try {
+                Instant now = Instant.now();
+                sweep(worker, now);
+                refresh(now);
+            } catch (RuntimeException ex) {
+                log.warn("Lock sweep failed", ex);
+            }
+        }
+    }
+
+    // Each batch is its own statement (autocommit): the row locks are held for one batch only
+    private void sweep(BackgroundJobs.Worker worker, Instant now) {
+        OffsetDateTime at = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        while (!worker.stopRequested()) {
+            int n = jdbcTemplate.update(SWEEP, at, batchSize, at);
+            cleared.increment(n);
+            if (n < batchSize) break;
+        }
+    }
+
+    private void refresh(Instant now) {
+        jdbcTemplate.query(ACTIVE,
+                (RowCallbackHandler) rs -> put(rs.getObject("id", UUID.class), rs.getObject("locked_until", OffsetDateTime.class).toInstant()),
+                OffsetDateTime.ofInstant(now, ZoneOffset.UTC));
+        locks.values().removeIf(until -> !until.isAfter(now));
+    }
+}
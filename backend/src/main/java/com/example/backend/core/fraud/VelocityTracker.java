@@ -0,0 +1,211 @@
+package com.example.backend.core.fraud;
+
+import com.example.backend.core.banking.BalanceCodec;
+import com.example.backend.core.transfer.TransferEntity;
+import com.example.backend.core.transfer.TransferRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Outgoing transfer velocity per user, in memory: for every configured window (default 60s, 1h, 24h)
+ * a ring of time buckets holding count and amount. Reads are O(buckets), writes one CAS.
+ * A user's rings are warmed from transfers on first access (one indexed range read over the longest window)
+ * and updated after each commit; users idle for longer than the longest window are evicted.
+ */
+@Component
+public class VelocityTracker {
+
+    /**
+     * Outgoing transfers in the last {@code window}: count and total amount.
+     */
+    public record Velocity(Duration window, long count, BigDecimal amount) {}
+
+    private record Bucket(long slot, long count, long cents) {}
+
+    // One window: bucket i holds the transfers of time slot (epochMillis / width) with slot % size == i
+    private static final class Ring {
+        final Duration window;
+        final long widthMillis;
+        final AtomicReferenceArray<Bucket> buckets;
+
+        Ring(Duration window, int size) {
+            this.window = window;
+            this.widthMillis = Math.max(1, window.toMillis() / size);
+            this.buckets = new AtomicReferenceArray<>(size);
+        }
+
+        void add(long epochMillis, long count, long cents, long nowMillis) {
+            long slot = epochMillis / widthMillis;
+            if (slot <= nowMillis / widthMillis - buckets.length()) return; // already out of the window
+
+            int i = (int) Math.floorMod(slot, (long) buckets.length());
+            while (true) {
+                Bucket cur = buckets.get(i);
+                Bucket next;
+                if (cur == null || cur.slot() < slot) next = new Bucket(slot, count, cents);
+                else if (cur.slot() == slot) next = new Bucket(slot, cur.count() + count, cur.cents() + cents);
+                else return; // a newer slot already reused this bucket
+                if (buckets.compareAndSet(i, cur, next)) return;
+            }
+        }
+
+        Velocity read(long nowMillis) {
+            long current = nowMillis / widthMillis;
+            long oldest = current - buckets.length() + 1;
+            long count = 0;
+            long cents = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket b = buckets.get(i);
+                if (b != null && b.slot() >= oldest && b.slot() <= current) {
+                    count += b.count();
+                    cents += b.cents();
+                }
+            }
+            return new Velocity(window, count, BalanceCodec.fromCents(cents));
+        }
+    }
+
+    private static final class UserRings {
+        final Ring[] rings;
+
+        UserRings(List<Duration> windows, int buckets) {
+            rings = new Ring[windows.size()];
+            for (int i = 0; i < rings.length; i++) rings[i] = new Ring(windows.get(i), buckets);
+        }
+
+        void add(long epochMillis, long cents, long nowMillis) {
+            for (Ring r : rings) r.add(epochMillis, 1, cents, nowMillis);
+        }
+    }
+
+    private final TransferRepository transferRepository;
+    private final List<Duration> windows;
+    private final Duration longest;
+    private final int buckets;
+    private final Cache<UUID, UserRings> users;
+    private final Counter warmups;
+
+    public VelocityTracker(TransferRepository transferRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${vaultbank.fraud.velocity.windows:60s,1h,24h}") List<Duration> windows,
+                           @Value("${vaultbank.fraud.velocity.buckets:60}") int buckets,
+                           @Value("${vaultbank.fraud.velocity.max-users:200000}") long maxUsers) {
+        if (windows.isEmpty()) throw new IllegalStateException("vaultbank.fraud.velocity.windows is empty");
+        this.transferRepository = transferRepository;
+        this.windows = windows.stream().sorted().distinct().toList();
+        this.longest = this.windows.get(this.windows.size() - 1);
+        this.buckets = Math.max(1, buckets);
+
+        // Idle longer than the longest window: every bucket would read as empty anyway
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(longest)
+                .build();
+
+        this.warmups = Counter.builder("vaultbank.fraud.velocity.warmups")
+                .description("Users whose counters were loaded from transfers")
+                .register(meterRegistry);
+        meterRegistry.gauge("vaultbank.fraud.velocity.users", users, Cache::estimatedSize);
+    }
+
+    public List<Duration> windows() { return windows; }
+
+    public Duration longest() { return longest; }
+
+    /**
+     * Velocity of the user's outgoing transfers in every configured window, shortest first.
+     */
+    public List<Velocity> velocities(UUID userId, Instant now) {
+        long nowMillis = now.toEpochMilli();
+        UserRings r = users.get(userId, id -> warm(id, now));
+        List<Velocity> out = new ArrayList<>(r.rings.length);
+        for (Ring ring : r.rings) out.add(ring.read(nowMillis));
+        return out;
+    }
+
+    /**
+     * Like {@link #velocities(UUID, Instant)}, warming a user not loaded yet from the given outgoing transfers
+     * (covering at least the longest window) instead of the repository.
+     */
+    public List<Velocity> velocities(UUID userId, Instant now, Supplier<? extends Iterable<? extends TransferRepository.OutgoingAmount>> history) {
+        long nowMillis = now.toEpochMilli();
+        UserRings r = users.get(userId, id -> warm(history.get(), now));
+        List<Velocity> out = new ArrayList<>(r.rings.length);
+        for (Ring ring : r.rings) out.add(ring.read(nowMillis));
+        return out;
+    }
+
+    /**
+     * A new account has no transfers: its counters start empty without a read.
+     */
+    public void startEmpty(UUID userId) {
+        users.asMap().putIfAbsent(userId, new UserRings(windows, buckets));
+    }
+
+    /**
+     * Velocity in one of the configured windows.
+     */
+    public Velocity velocity(UUID userId, Duration window, Instant now) {
+        int i = windows.indexOf(window);
+        if (i < 0) throw new IllegalArgumentException("Velocity window not configured: " + window);
+        return users.get(userId, id -> warm(id, now)).rings[i].read(now.toEpochMilli());
+    }
+
+    /**
+     * Counts the transfers once the current transaction commits (right away outside a transaction).
+     */
+    public void recordAfterCommit(List<TransferEntity> transfers) {
+        if (transfers.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(transfers);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(transfers);
+            }
+        });
+    }
+
+    private void record(List<TransferEntity> transfers) {
+        long nowMillis = System.currentTimeMillis();
+        for (TransferEntity t : transfers) {
+            long cents = BalanceCodec.toCents(t.getAmount());
+            long at = t.getCreatedAt().toEpochMilli();
+            // Users not loaded yet will read this transfer from the DB when they are; a load in progress
+            // completes first (it may already include the row: counting it twice errs on the safe side)
+            users.asMap().computeIfPresent(t.getFromUserId(), (id, r) -> {
+                r.add(at, cents, nowMillis);
+                return r;
+            });
+        }
+    }
+
+    private UserRings warm(UUID userId, Instant now) {
+        return warm(transferRepository.findOutgoingSince(userId, now.minus(longest)), now);
+    }
+
+    private UserRings warm(Iterable<? extends TransferRepository.OutgoingAmount> history, Instant now) {
+        warmups.increment();
+        UserRings r = new UserRings(windows, buckets);
+        long nowMillis = now.toEpochMilli();
+        for (TransferRepository.OutgoingAmount o : history) {
+            r.add(o.getCreatedAt().toEpochMilli(), BalanceCodec.toCents(o.getAmount()), nowMillis);
+        }
+        return r;
+    }
+}
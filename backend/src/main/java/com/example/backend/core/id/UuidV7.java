@@ -0,0 +1,24 @@
+package com.example.backend.core.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered UUIDs (RFC 9562, version 7): 48-bit Unix millis, then 74 random bits.
+ * New rows land at the right edge of the primary key B-tree instead of on a random page.
+ */
+public final class UuidV7 {
+
+    private UuidV7() { }
+
+    public static UUID next() {
+        return at(System.currentTimeMillis());
+    }
+
+    private static UUID at(long epochMillis) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long msb = (epochMillis << 16) | 0x7000L | (rnd.nextLong() & 0x0FFFL);
+        long lsb = (rnd.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.backend.core.ledger;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import com.example.backend.core.banking.BalanceCodec;
+import com.example.backend.core.user.UserEntity;
+import com.example.backend.core.user.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds ledger_entries for accounts created before the ledger existed (users.ledger_seq is null).
+ * Each account is done in its own transaction under its row lock: transfers committed before the lock
+ * are all in the rebuilt history, transfers after it see ledger_seq and post normally.
+ * Running balances are computed backwards from the current balance. The null ledger_seq is the checkpoint.
+ */
+@Component
+public class LedgerBackfillJob implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerBackfillJob.class);
+
+    private static final String HISTORY = "select id, from_user_id, to_user_id, from_iban, to_iban, causal, amount, created_at " +
+            "from transfers where from_user_id = ? " +
+            "union all " +
+            "select id, from_user_id, to_user_id, from_iban, to_iban, causal, amount, created_at " +
+            "from transfers where to_user_id = ? and from_user_id <> ? " +
+            "order by created_at, id";
+
+    private record Row(UUID id, UUID fromUserId, UUID toUserId, String fromIban, String toIban,
+                       String causal, BigDecimal amount, Instant createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final LedgerJournal ledgerJournal;
+    private final BalanceCodec balanceCodec;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int rowsPerSecond;
+    private final Counter accountsCounter;
+    private final Counter entriesCounter;
+
+    public LedgerBackfillJob(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             UserRepository userRepository,
+                             LedgerJournal ledgerJournal,
+                             BalanceCodec balanceCodec,
+                             MeterRegistry meterRegistry,
+                             @Value("${vaultbank.ledger.backfill.enabled:true}") boolean enabled,
+                             @Value("${vaultbank.ledger.backfill.chunk-size:100}") int chunkSize,
+                             @Value("${vaultbank.ledger.backfill.rows-per-second:5000}") int rowsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.ledgerJournal = ledgerJournal;
+        this.balanceCodec = balanceCodec;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.rowsPerSecond = Math.max(1, rowsPerSecond);
+        this.accountsCounter = Counter.builder("vaultbank.ledger.backfill.accounts").register(meterRegistry);
+        this.entriesCounter = Counter.builder("vaultbank.ledger.backfill.entries").register(meterRegistry);
+    }
+
+    @Override
+    public String name() { return "ledger-backfill"; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        UUID after = null;
+        long accounts = 0;
+        long entries = 0;
+        long startNanos = System.nanoTime();
+
+        while (!worker.stopRequested()) {
+            List<UUID> ids = after == null
+                    ? jdbcTemplate.queryForList("select id from users where ledger_seq is null order by id limit ?", UUID.class, chunkSize)
+                    : jdbcTemplate.queryForList("select id from users where ledger_seq is null and id > ? order by id limit ?", UUID.class, after, chunkSize);
+            if (ids.isEmpty()) break;
+
+            for (UUID id : ids) {
+                if (worker.stopRequested()) break;
+                Integer n = transactionTemplate.execute(status -> backfill(id));
+                if (n == null || n < 0) continue;
+
+                accounts++;
+                entries += n;
+                accountsCounter.increment();
+                entriesCounter.increment(n);
+                worker.pace(startNanos, entries + accounts, rowsPerSecond);
+            }
+            after = ids.get(ids.size() - 1);
+        }
+
+        if (accounts > 0) log.info("Ledger backfill: {} accounts, {} entries", accounts, entries);
+    }
+
+    /**
+     * @return entries written, or -1 if the account was already done (or deleted) in the meantime
+     */
+    private int backfill(UUID accountId) {
+        UserEntity account = userRepository.findByIdForUpdate(accountId).orElse(null);
+        if (account == null || account.getLedgerSeq() != null) return -1;
+
+        List<Row> history = jdbcTemplate.query(HISTORY, (rs, i) -> mapRow(rs), accountId, accountId, accountId);
+
+        // Walk back from the current balance: balance before a posting = balance after it minus its effect
+        LedgerEntryEntity[] entries = new LedgerEntryEntity[history.size()];
+        long balance = balanceCodec.readCents(account);
+        for (int i = history.size() - 1; i >= 0; i--) {
+            Row r = history.get(i);
+            boolean outgoing = accountId.equals(r.fromUserId());
+            entries[i] = LedgerEntryEntity.create(accountId, i + 1, r.id(),
+                    outgoing ? LedgerEntryEntity.Direction.OUT : LedgerEntryEntity.Direction.IN,
+                    r.amount(), balanceCodec.encrypt(balance),
+                    outgoing ? r.toUserId() : r.fromUserId(),
+                    outgoing ? r.toIban() : r.fromIban(),
+                    r.causal(), r.createdAt());
+
+            long cents = BalanceCodec.toCents(r.amount());
+            balance = outgoing ? balance + cents : balance - cents;
+        }
+
+        ledgerJournal.append(Arrays.asList(entries));
+        account.setLedgerSeq((long) entries.length);
+        return entries.length;
+    }
+
+    private static Row mapRow(ResultSet rs) throws SQLException {
+        return new Row(
+                rs.getObject("id", UUID.class),
+                rs.getObject("from_user_id", UUID.class),
+                rs.getObject("to_user_id", UUID.class),
+                rs.getString("from_iban"),
+                rs.getString("to_iban"),
+                rs.getString("causal"),
+                rs.getBigDecimal("amount"),
+                rs.getObject("created_at", OffsetDateTime.class).toInstant());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.backend.core.ledger;
+
+import com.example.backend.core.id.UuidV7;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One posting per account per transfer (internal transfers have two, external ones only the debit).
+ * seq is a gap-free per-account counter (users.ledger_seq), so an account's history is one scan of
+ * ux_ledger_account_seq in either direction.
+ */
+@Entity
+@Table(name = "ledger_entries",
+        indexes = @Index(name = "ux_ledger_account_seq", columnList = "account_id, seq DESC", unique = true))
+public class LedgerEntryEntity {
+
+    public enum Direction { IN, OUT }
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private UUID accountId;
+
+    @Column(name = "seq", nullable = false, updatable = false)
+    private long seq;
+
+    @Column(name = "transfer_id", nullable = false, updatable = false)
+    private UUID transferId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 3, updatable = false)
+    private Direction direction;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after_enc", nullable = false, length = 38, updatable = false)
+    private byte[] balanceAfterEnc; // running balance after this posting (BalanceCodec format)
+
+    @Column(name = "counterparty_id", updatable = false)
+    private UUID counterpartyId; // null = conto esterno
+
+    @Column(name = "counterparty_iban", nullable = false, length = 34, updatable = false)
+    private String counterpartyIban;
+
+    @Column(name = "causal", nullable = false, length = 140, updatable = false)
+    private String causal;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public LedgerEntryEntity() {}
+
+    public static LedgerEntryEntity create(UUID accountId, long seq, UUID transferId, Direction direction, BigDecimal amount,
+                                           byte[] balanceAfterEnc, UUID counterpartyId, String counterpartyIban,
+                                           String causal, Instant createdAt) {
+        LedgerEntryEntity e = new LedgerEntryEntity();
+        e.id = UuidV7.next();
+        e.accountId = accountId;
+        e.seq = seq;
+        e.transferId = transferId;
+        e.direction = direction;
+        e.amount = amount;
+        e.balanceAfterEnc = balanceAfterEnc;
+        e.counterpartyId = counterpartyId;
+        e.counterpartyIban = counterpartyIban;
+        e.causal = causal;
+        e.createdAt = createdAt;
+        return e;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getAccountId() { return accountId; }
+    public long getSeq() { return seq; }
+    public UUID getTransferId() { return transferId; }
+    public Direction getDirection() { return direction; }
+    public BigDecimal getAmount() { return amount; }
+    public byte[] getBalanceAfterEnc() { return balanceAfterEnc; }
+    public UUID getCounterpartyId() { return counterpartyId; }
+    public String getCounterpartyIban() { return counterpartyIban; }
+    public String getCausal() { return causal; }
+    public Instant getCreatedAt() { return createdAt; }
+}
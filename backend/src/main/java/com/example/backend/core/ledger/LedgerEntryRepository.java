@@ -0,0 +1,26 @@
+package com.example.backend.core.ledger;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, UUID> {
+
+    // History page: backward range scan of ux_ledger_account_seq starting below beforeSeq
+    @Query("select e from LedgerEntryEntity e " +
+            "where e.accountId = :accountId and e.seq < :beforeSeq " +
+            "order by e.seq desc")
+    List<LedgerEntryEntity> findPage(@Param("accountId") UUID accountId, @Param("beforeSeq") long beforeSeq, Pageable pageable);
+
+    // Balance at a point in time: the newest posting not after it
+    Optional<LedgerEntryEntity> findFirstByAccountIdAndCreatedAtLessThanEqualOrderBySeqDesc(UUID accountId, Instant at);
+
+    // No posting by then: the balance before the first one
+    Optional<LedgerEntryEntity> findFirstByAccountIdOrderBySeqAsc(UUID accountId);
+}
@@ -0,0 +1,45 @@
+package com.example.backend.core.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes ledger postings with JDBC batch inserts, inside the caller's transaction (same as TransferJournal).
+ */
+@Component
+public class LedgerJournal {
+
+    private static final String INSERT = "insert into ledger_entries " +
+            "(id, account_id, seq, transfer_id, direction, amount, balance_after_enc, counterparty_id, counterparty_iban, causal, created_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerJournal(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(List<LedgerEntryEntity> entries) {
+        if (entries.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, e) -> {
+            ps.setObject(1, e.getId());
+            ps.setObject(2, e.getAccountId());
+            ps.setLong(3, e.getSeq());
+            ps.setObject(4, e.getTransferId());
+            ps.setString(5, e.getDirection().name());
+            ps.setBigDecimal(6, e.getAmount());
+            ps.setBytes(7, e.getBalanceAfterEnc());
+            if (e.getCounterpartyId() != null) ps.setObject(8, e.getCounterpartyId());
+            else ps.setNull(8, Types.OTHER);
+            ps.setString(9, e.getCounterpartyIban());
+            ps.setString(10, e.getCausal());
+            ps.setObject(11, OffsetDateTime.ofInstant(e.getCreatedAt(), ZoneOffset.UTC));
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.core.settlement;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stand-in gateway that appends every batch to an NDJSON file (one instruction per line) and fsyncs it
+ * before acknowledging. Duplicates are possible after a retry: consumers dedupe on transferId.
+ */
+public class FileSettlementGateway implements SettlementGateway {
+
+    private final Path file;
+    private final JsonMapper jsonMapper;
+    // Not synchronized: a virtual thread blocked on the fsync inside a monitor would pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileSettlementGateway(Path file, JsonMapper jsonMapper) {
+        this.file = file;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public List<Result> submit(List<Instruction> batch) {
+        StringBuilder sb = new StringBuilder(batch.size() * 200);
+        for (Instruction i : batch) {
+            sb.append(jsonMapper.writeValueAsString(i)).append('\n');
+        }
+
+        lock.lock();
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(false);
+            }
+        } catch (IOException ex) {
+            List<Result> out = new ArrayList<>(batch.size());
+            for (Instruction i : batch) out.add(Result.retry(i.transferId(), "File write failed: " + ex.getMessage()));
+            return out;
+        } finally {
+            lock.unlock();
+        }
+
+        List<Result> out = new ArrayList<>(batch.size());
+        for (Instruction i : batch) out.add(Result.accepted(i.transferId(), "FILE-" + i.transferId()));
+        return out;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.backend.core.settlement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in gateway: accepts everything and remembers the most recent instructions (tests, local runs).
+ */
+public class InMemorySettlementGateway implements SettlementGateway {
+
+    private final int retained;
+    private final ConcurrentLinkedDeque<Instruction> recent = new ConcurrentLinkedDeque<>();
+    private final Map<UUID, String> references = new ConcurrentHashMap<>();
+
+    public InMemorySettlementGateway(int retained) {
+        this.retained = Math.max(1, retained);
+    }
+
+    @Override
+    public List<Result> submit(List<Instruction> batch) {
+        List<Result> out = new ArrayList<>(batch.size());
+        for (Instruction i : batch) {
+            // Same transfer submitted again: same reference, no second entry
+            String ref = references.computeIfAbsent(i.transferId(), id -> {
+                recent.addLast(i);
+                return "MEM-" + id;
+            });
+            out.add(Result.accepted(i.transferId(), ref));
+        }
+        while (recent.size() > retained) {
+            Instruction evicted = recent.pollFirst();
+            if (evicted != null) references.remove(evicted.transferId());
+        }
+        return out;
+    }
+
+    public List<Instruction> recent() {
+        return List.copyOf(recent);
+    }
+}
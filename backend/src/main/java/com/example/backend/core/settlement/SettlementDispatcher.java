@@ -0,0 +1,203 @@
+package com.example.backend.core.settlement;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Drains settlement_outbox in batches. A claim is a single UPDATE ... RETURNING over rows picked with
+ * FOR UPDATE SKIP LOCKED, so several instances can run side by side without taking the same rows.
+ * Claimed rows go IN_FLIGHT with a lease (next_attempt_at = now + lease); the gateway is called outside any
+ * transaction and the outcomes are written back in one batch. Failed attempts back off exponentially
+ * until max-attempts, then the row is FAILED and needs manual handling.
+ */
+@Component
+public class SettlementDispatcher implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementDispatcher.class);
+
+    private static final String CLAIM = "update settlement_outbox o set status = 'IN_FLIGHT', attempts = o.attempts + 1, next_attempt_at = ? " +
+            "where o.transfer_id in (" +
+            "select transfer_id from settlement_outbox " +
+            "where status in ('PENDING', 'IN_FLIGHT') and next_attempt_at <= ? " +
+            "order by next_attempt_at limit ? for update skip locked) " +
+            "returning o.transfer_id, o.from_iban, o.to_iban, o.amount, o.causal, o.attempts";
+
+    // Only rows still leased by this claim (IN_FLIGHT, same attempt) are updated
+    private static final String MARK_SENT = "update settlement_outbox set status = 'SENT', gateway_ref = ?, settled_at = ?, last_error = null " +
+            "where transfer_id = ? and status = 'IN_FLIGHT' and attempts = ?";
+    private static final String MARK_RETRY = "update settlement_outbox set status = 'PENDING', next_attempt_at = ?, last_error = ? " +
+            "where transfer_id = ? and status = 'IN_FLIGHT' and attempts = ?";
+    private static final String MARK_FAILED = "update settlement_outbox set status = 'FAILED', last_error = ? " +
+            "where transfer_id = ? and status = 'IN_FLIGHT' and attempts = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SettlementGateway gateway;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizes;
+    private final Timer gatewayTimer;
+
+    public SettlementDispatcher(JdbcTemplate jdbcTemplate,
+                                SettlementGateway gateway,
+                                MeterRegistry meterRegistry,
+                                @Value("${vaultbank.settlement.enabled:true}") boolean enabled,
+                                @Value("${vaultbank.settlement.batch-size:200}") int batchSize,
+                                @Value("${vaultbank.settlement.poll-interval:500ms}") Duration pollInterval,
+                                @Value("${vaultbank.settlement.lease:2m}") Duration lease,
+                                @Value("${vaultbank.settlement.max-attempts:10}") int maxAttempts,
+                                @Value("${vaultbank.settlement.backoff:5s}") Duration baseBackoff,
+                                @Value("${vaultbank.settlement.max-backoff:15m}") Duration maxBackoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gateway = gateway;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+
+        this.sentCounter = Counter.builder("vaultbank.settlement.sent").register(meterRegistry);
+        this.retryCounter = Counter.builder("vaultbank.settlement.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("vaultbank.settlement.failed")
+                .description("Transfers given up after max attempts or rejected by the gateway")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("vaultbank.settlement.batch.size").register(meterRegistry);
+        this.gatewayTimer = Timer.builder("vaultbank.settlement.gateway.latency").register(meterRegistry);
+    }
+
+    @Override
+    public String name() { return "settlement-dispatcher"; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        while (!worker.stopRequested()) {
+            int claimed;
+            try {
+                claimed = dispatchOnce();
+            } catch (RuntimeException ex) {
+                log.warn("Settlement dispatch failed; claimed rows are retried when their lease expires", ex);
+                claimed = 0;
+            }
+            // Full batch: there is probably more, go again right away
+            if (claimed == batchSize) continue;
+
+            Thread.sleep(pollInterval.toMillis());
+        }
+    }
+
+    /**
+     * Claims one batch, submits it and records the outcomes.
+     *
+     * @return number of rows claimed
+     */
+    public int dispatchOnce() {
+        Instant now = Instant.now();
+        List<SettlementGateway.Instruction> batch = jdbcTemplate.query(CLAIM,
+                (rs, i) -> new SettlementGateway.Instruction(
+                        rs.getObject("transfer_id", UUID.class),
+                        rs.getString("from_iban"),
+                        rs.getString("to_iban"),
+                        rs.getBigDecimal("amount"),
+                        rs.getString("causal"),
+                        rs.getInt("attempts")),
+                utc(now.plus(lease)), utc(now), batchSize);
+        if (batch.isEmpty()) return 0;
+        batchSizes.record(batch.size());
+
+        Map<UUID, SettlementGateway.Result> results = new HashMap<>(batch.size() * 2);
+        try {
+            List<SettlementGateway.Result> out = gatewayTimer.record(() -> gateway.submit(batch));
+            if (out != null) {
+                for (SettlementGateway.Result r : out) results.put(r.transferId(), r);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Settlement gateway failed for a batch of {}", batch.size(), ex);
+            for (SettlementGateway.Instruction i : batch) {
+                results.put(i.transferId(), SettlementGateway.Result.retry(i.transferId(), ex.getMessage()));
+            }
+        }
+
+        record(batch, results);
+        return batch.size();
+    }
+
+    private void record(List<SettlementGateway.Instruction> batch, Map<UUID, SettlementGateway.Result> results) {
+        Instant now = Instant.now();
+        List<Object[]> sent = new ArrayList<>();
+        List<Object[]> retry = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+
+        for (SettlementGateway.Instruction i : batch) {
+            SettlementGateway.Result r = results.getOrDefault(i.transferId(),
+                    SettlementGateway.Result.retry(i.transferId(), "No result from gateway"));
+            switch (r.outcome()) {
+                case ACCEPTED -> sent.add(new Object[]{r.reference(), utc(now), i.transferId(), i.attempt()});
+                case REJECTED -> failed.add(new Object[]{truncate(r.error()), i.transferId(), i.attempt()});
+                case RETRY -> {
+                    if (i.attempt() >= maxAttempts) {
+                        failed.add(new Object[]{truncate("Max attempts reached: " + r.error()), i.transferId(), i.attempt()});
+                    } else {
+                        retry.add(new Object[]{utc(now.plus(backoff(i.attempt()))), truncate(r.error()), i.transferId(), i.attempt()});
+                    }
+                }
+            }
+        }
+
+        if (!sent.isEmpty()) jdbcTemplate.batchUpdate(MARK_SENT, sent);
+        if (!retry.isEmpty()) jdbcTemplate.batchUpdate(MARK_RETRY, retry);
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_FAILED, failed);
+            for (Object[] f : failed) log.error("Settlement of transfer {} failed: {}", f[1], f[0]);
+        }
+
+        sentCounter.increment(sent.size());
+        retryCounter.increment(retry.size());
+        failedCounter.increment(failed.size());
+    }
+
+    // base * 2^(attempt-1), capped, with up to 20% jitter so retries of one batch do not come back together
+    private Duration backoff(int attempt) {
+        long base = baseBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        long jitter = (long) (capped * 0.2 * Math.random());
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    private static OffsetDateTime utc(Instant i) {
+        return OffsetDateTime.ofInstant(i, ZoneOffset.UTC);
+    }
+
+    private static String truncate(String s) {
+        if (s == null) return null;
+        return s.length() <= 500 ? s : s.substring(0, 500);
+    }
+}
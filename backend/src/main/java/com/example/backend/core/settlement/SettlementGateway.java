@@ -0,0 +1,37 @@
+package com.example.backend.core.settlement;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hands external transfers over to the outside world (clearing house, partner bank, ...).
+ * The same instruction can be submitted more than once (retries, expired leases):
+ * implementations must treat transferId as an idempotency key.
+ */
+public interface SettlementGateway {
+
+    record Instruction(UUID transferId, String fromIban, String toIban, BigDecimal amount, String causal, int attempt) {}
+
+    enum Outcome { ACCEPTED, RETRY, REJECTED }
+
+    record Result(UUID transferId, Outcome outcome, String reference, String error) {
+        public static Result accepted(UUID transferId, String reference) {
+            return new Result(transferId, Outcome.ACCEPTED, reference, null);
+        }
+
+        public static Result retry(UUID transferId, String error) {
+            return new Result(transferId, Outcome.RETRY, null, error);
+        }
+
+        public static Result rejected(UUID transferId, String error) {
+            return new Result(transferId, Outcome.REJECTED, null, error);
+        }
+    }
+
+    /**
+     * Submits a batch. Instructions missing from the returned list are retried;
+     * an exception retries the whole batch.
+     */
+    List<Result> submit(List<Instruction> batch);
+}
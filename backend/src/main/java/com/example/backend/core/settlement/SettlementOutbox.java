@@ -0,0 +1,50 @@
+package com.example.backend.core.settlement;
+
+import com.example.backend.core.transfer.TransferEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enqueues external transfers for settlement, inside the caller's transaction:
+ * the outbox row commits (or rolls back) together with the debit.
+ */
+@Component
+public class SettlementOutbox {
+
+    private static final String INSERT = "insert into settlement_outbox " +
+            "(transfer_id, from_iban, to_iban, amount, causal, status, attempts, next_attempt_at, created_at) " +
+            "values (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SettlementOutbox(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the external transfers of the list (toUserId == null); internal ones are ignored.
+     */
+    public void enqueueExternal(List<TransferEntity> transfers) {
+        List<TransferEntity> external = new ArrayList<>();
+        for (TransferEntity t : transfers) {
+            if (t.getToUserId() == null) external.add(t);
+        }
+        if (external.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT, external, external.size(), (ps, t) -> {
+            OffsetDateTime createdAt = OffsetDateTime.ofInstant(t.getCreatedAt(), ZoneOffset.UTC);
+            ps.setObject(1, t.getId());
+            ps.setString(2, t.getFromIban());
+            ps.setString(3, t.getToIban());
+            ps.setBigDecimal(4, t.getAmount());
+            ps.setString(5, t.getCausal());
+            ps.setObject(6, createdAt);
+            ps.setObject(7, createdAt);
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.core.settlement;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An external transfer whose money still has to leave the bank. Inserted by {@link SettlementOutbox}
+ * in the same transaction as the transfer, then driven to SENT (or FAILED) by {@link SettlementDispatcher}.
+ * next_attempt_at doubles as the lease of IN_FLIGHT rows: a dispatcher that dies mid-batch
+ * leaves rows that become claimable again when it expires.
+ */
+@Entity
+@Table(name = "settlement_outbox",
+        indexes = @Index(name = "ix_settlement_outbox_due", columnList = "status, next_attempt_at"))
+public class SettlementOutboxEntity {
+
+    public enum Status { PENDING, IN_FLIGHT, SENT, FAILED }
+
+    @Id
+    @Column(name = "transfer_id", nullable = false, updatable = false)
+    private UUID transferId;
+
+    @Column(name = "from_iban", nullable = false, length = 34, updatable = false)
+    private String fromIban;
+
+    @Column(name = "to_iban", nullable = false, length = 34, updatable = false)
+    private String toIban;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "causal", nullable = false, length = 140, updatable = false)
+    private String causal;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "gateway_ref", length = 100)
+    private String gatewayRef;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "settled_at")
+    private Instant settledAt;
+
+    public SettlementOutboxEntity() {}
+
+    public UUID getTransferId() { return transferId; }
+    public String getFromIban() { return fromIban; }
+    public String getToIban() { return toIban; }
+    public BigDecimal getAmount() { return amount; }
+    public String getCausal() { return causal; }
+    public Status getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public String getGatewayRef() { return gatewayRef; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getSettledAt() { return settledAt; }
+}
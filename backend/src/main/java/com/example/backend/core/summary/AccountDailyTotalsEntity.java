@@ -0,0 +1,66 @@
+package com.example.backend.core.summary;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Incoming/outgoing totals of one account for one calendar day (vaultbank.zone).
+ * Maintained by {@link AccountTotalsJournal} in the transfer's transaction; months are summed from days.
+ */
+@Entity
+@Table(name = "account_daily_totals")
+@IdClass(AccountDailyTotalsEntity.Key.class)
+public class AccountDailyTotalsEntity {
+
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private UUID accountId;
+        private LocalDate day;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(accountId, k.accountId) && Objects.equals(day, k.day);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(accountId, day); }
+    }
+
+    @Id
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private UUID accountId;
+
+    @Id
+    @Column(name = "day", nullable = false, updatable = false)
+    private LocalDate day;
+
+    @Column(name = "in_count", nullable = false)
+    private long inCount;
+
+    @Column(name = "in_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal inAmount;
+
+    @Column(name = "out_count", nullable = false)
+    private long outCount;
+
+    @Column(name = "out_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal outAmount;
+
+    public AccountDailyTotalsEntity() {}
+
+    public UUID getAccountId() { return accountId; }
+    public LocalDate getDay() { return day; }
+    public long getInCount() { return inCount; }
+    public BigDecimal getInAmount() { return inAmount; }
+    public long getOutCount() { return outCount; }
+    public BigDecimal getOutAmount() { return outAmount; }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.core.summary;
+
+import com.example.backend.core.transfer.TransferEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Adds transfers to account_daily_totals inside the caller's transaction.
+ * Legs are first summed in memory per (account, day), so a batch touching one account many times
+ * costs one upsert per account and day; upserts run in (account, day) order.
+ */
+@Component
+public class AccountTotalsJournal {
+
+    private static final String UPSERT = "insert into account_daily_totals " +
+            "(account_id, day, in_count, in_amount, out_count, out_amount) values (?, ?, ?, ?, ?, ?) " +
+            "on conflict (account_id, day) do update set " +
+            "in_count = account_daily_totals.in_count + excluded.in_count, " +
+            "in_amount = account_daily_totals.in_amount + excluded.in_amount, " +
+            "out_count = account_daily_totals.out_count + excluded.out_count, " +
+            "out_amount = account_daily_totals.out_amount + excluded.out_amount";
+
+    private record Key(UUID accountId, LocalDate day) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key o) {
+            int c = accountId.compareTo(o.accountId);
+            return c != 0 ? c : day.compareTo(o.day);
+        }
+    }
+
+    private static final class Delta {
+        long inCount;
+        BigDecimal inAmount = BigDecimal.ZERO;
+        long outCount;
+        BigDecimal outAmount = BigDecimal.ZERO;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ZoneId zone;
+
+    public AccountTotalsJournal(JdbcTemplate jdbcTemplate,
+                                @Value("${vaultbank.zone:Europe/Rome}") ZoneId zone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.zone = zone;
+    }
+
+    public ZoneId zone() { return zone; }
+
+    public void record(List<TransferEntity> transfers) {
+        if (transfers.isEmpty()) return;
+
+        Map<Key, Delta> deltas = new TreeMap<>();
+        for (TransferEntity t : transfers) {
+            LocalDate day = LocalDate.ofInstant(t.getCreatedAt(), zone);
+
+            Delta out = deltas.computeIfAbsent(new Key(t.getFromUserId(), day), k -> new Delta());
+            out.outCount++;
+            out.outAmount = out.outAmount.add(t.getAmount());
+
+            // External transfers only have the outgoing leg
+            if (t.getToUserId() != null) {
+                Delta in = deltas.computeIfAbsent(new Key(t.getToUserId(), day), k -> new Delta());
+                in.inCount++;
+                in.inAmount = in.inAmount.add(t.getAmount());
+            }
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((k, d) -> args.add(new Object[]{k.accountId(), k.day(), d.inCount, d.inAmount, d.outCount, d.outAmount}));
+        jdbcTemplate.batchUpdate(UPSERT, args);
+    }
+}
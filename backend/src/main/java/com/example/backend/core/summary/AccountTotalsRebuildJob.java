@@ -0,0 +1,131 @@
+package com.example.backend.core.summary;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes account_daily_totals from transfers, one account per transaction, several accounts in parallel.
+ * Each account is rebuilt under its users row lock, the same lock a transfer takes before updating the totals,
+ * so live transfers are never lost or counted twice. Run once after introducing the table, or to repair it.
+ */
+@Component
+public class AccountTotalsRebuildJob implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountTotalsRebuildJob.class);
+
+    private static final String NAME = "totals-rebuild";
+
+    private static final String REBUILD = "insert into account_daily_totals (account_id, day, in_count, in_amount, out_count, out_amount) " +
+            "select ?, x.day, sum(x.in_count), sum(x.in_amount), sum(x.out_count), sum(x.out_amount) from (" +
+            "select (created_at at time zone ?)::date as day, 0 as in_count, 0 as in_amount, 1 as out_count, amount as out_amount " +
+            "from transfers where from_user_id = ? " +
+            "union all " +
+            "select (created_at at time zone ?)::date, 1, amount, 0, 0 " +
+            "from transfers where to_user_id = ? and from_user_id <> ?" +
+            ") x group by x.day";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BackgroundJobs jobs;
+    private final String zoneId;
+    private final boolean enabled;
+    private final int threads;
+    private final int chunkSize;
+    private final Counter accountsCounter;
+
+    public AccountTotalsRebuildJob(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   AccountTotalsJournal journal,
+                                   BackgroundJobs jobs,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${vaultbank.summary.rebuild.enabled:false}") boolean enabled,
+                                   @Value("${vaultbank.summary.rebuild.threads:4}") int threads,
+                                   @Value("${vaultbank.summary.rebuild.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobs = jobs;
+        this.zoneId = journal.zone().getId();
+        this.enabled = enabled;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.accountsCounter = Counter.builder("vaultbank.summary.rebuild.accounts").register(meterRegistry);
+        meterRegistry.gauge("vaultbank.summary.rebuild.running", jobs, j -> j.isRunning(NAME) ? 1 : 0);
+    }
+
+    @Override
+    public String name() { return NAME; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    /**
+     * @return false if a rebuild is already running
+     */
+    public boolean start() {
+        return jobs.start(this);
+    }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "totals-rebuild-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long accounts = 0;
+        long startNanos = System.nanoTime();
+        try {
+            UUID after = null;
+            while (!worker.stopRequested()) {
+                List<UUID> ids = after == null
+                        ? jdbcTemplate.queryForList("select id from users order by id limit ?", UUID.class, chunkSize)
+                        : jdbcTemplate.queryForList("select id from users where id > ? order by id limit ?", UUID.class, after, chunkSize);
+                if (ids.isEmpty()) break;
+
+                List<Future<?>> done = new ArrayList<>(ids.size());
+                for (UUID id : ids) done.add(pool.submit(() -> rebuild(id)));
+                for (Future<?> f : done) {
+                    try {
+                        f.get();
+                    } catch (ExecutionException ex) {
+                        throw new IllegalStateException("Rebuild failed", ex.getCause());
+                    }
+                }
+                accounts += ids.size();
+                after = ids.get(ids.size() - 1);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        log.info("Account totals rebuilt for {} accounts in {} ms", accounts, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void rebuild(UUID accountId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Same lock as BankingService: no transfer of this account can commit totals meanwhile
+            List<UUID> locked = jdbcTemplate.queryForList("select id from users where id = ? for update", UUID.class, accountId);
+            if (locked.isEmpty()) return;
+
+            jdbcTemplate.update("delete from account_daily_totals where account_id = ?", accountId);
+            jdbcTemplate.update(REBUILD, accountId, zoneId, accountId, zoneId, accountId, accountId);
+        });
+        accountsCounter.increment();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.core.summary;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spending summaries read from account_daily_totals only (never from transfers).
+ */
+@Service
+public class SummaryService {
+
+    public enum Granularity { DAY, MONTH }
+
+    public record SummaryItem(LocalDate period, long inCount, BigDecimal inAmount, long outCount, BigDecimal outAmount) {}
+
+    private static final String BY_DAY = "select day as period, in_count, in_amount, out_count, out_amount " +
+            "from account_daily_totals where account_id = ? and day between ? and ? order by day";
+
+    private static final String BY_MONTH = "select date_trunc('month', day)::date as period, " +
+            "sum(in_count) as in_count, sum(in_amount) as in_amount, sum(out_count) as out_count, sum(out_amount) as out_amount " +
+            "from account_daily_totals where account_id = ? and day between ? and ? group by 1 order by 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ZoneId zone;
+
+    public SummaryService(JdbcTemplate jdbcTemplate, AccountTotalsJournal journal) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.zone = journal.zone();
+    }
+
+    /**
+     * Periods without movements are omitted. from/to are inclusive days; when missing the range is
+     * the last 30 days (DAY) or the last 12 months (MONTH) up to today.
+     */
+    public List<SummaryItem> summary(UUID accountId, Granularity granularity, LocalDate from, LocalDate to) {
+        if (to == null) to = LocalDate.now(zone);
+        if (from == null) from = granularity == Granularity.DAY ? to.minusDays(29) : to.withDayOfMonth(1).minusMonths(11);
+        if (to.isBefore(from)) throw new IllegalArgumentException("'to' must not be before 'from'");
+
+        return jdbcTemplate.query(granularity == Granularity.DAY ? BY_DAY : BY_MONTH,
+                (rs, i) -> new SummaryItem(
+                        rs.getObject("period", LocalDate.class),
+                        rs.getLong("in_count"),
+                        rs.getBigDecimal("in_amount"),
+                        rs.getLong("out_count"),
+                        rs.getBigDecimal("out_amount")),
+                accountId, from, to);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.core.transfer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops indexes on transfers that the entity no longer declares: ddl-auto=update only adds.
+ * ix_transfers_from_user and ix_transfers_to_user are prefixes of the (user, created_at, id) indexes.
+ */
+@Component
+public class LegacyTransferIndexes {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyTransferIndexes.class);
+
+    private static final List<String> INDEXES = List.of("ix_transfers_from_user", "ix_transfers_to_user");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LegacyTransferIndexes(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropOnBoot() {
+        for (String index : INDEXES) {
+            try {
+                jdbcTemplate.execute("drop index if exists " + index);
+            } catch (RuntimeException ex) {
+                log.warn("Could not drop {}", index, ex);
+            }
+        }
+    }
+}
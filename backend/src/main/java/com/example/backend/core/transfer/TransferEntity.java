@@ -1,5 +1,6 @@
 package com.example.backend.core.transfer;
 
+import com.example.backend.core.id.UuidV7;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -8,8 +9,9 @@ import java.util.UUID;
 @Entity
 @Table(name = "transfers", indexes = {
         @Index(name = "ix_transfers_created_at", columnList = "created_at"),
-        @Index(name = "ix_transfers_from_user", columnList = "from_user_id"),
-        @Index(name = "ix_transfers_to_user", columnList = "to_user_id")
+        // (user, created_at, id): keyset pages of movements, one range scan per side
+        @Index(name = "ix_transfers_from_user_created", columnList = "from_user_id, created_at DESC, id DESC"),
+        @Index(name = "ix_transfers_to_user_created", columnList = "to_user_id, created_at DESC, id DESC")
 })
 public class TransferEntity {
 
@@ -42,7 +44,7 @@ public class TransferEntity {
 
     public static TransferEntity create(UUID fromUserId, UUID toUserId, String fromIban, String toIban, String causal, BigDecimal amount) {
         TransferEntity t = new TransferEntity();
-        t.id = UUID.randomUUID();
+        t.id = UuidV7.next();
         t.fromUserId = fromUserId;
         t.toUserId = toUserId;
         t.fromIban = fromIban;
@@ -0,0 +1,45 @@
+package com.example.backend.core.transfer;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of a transfer submitted with an Idempotency-Key. Written by {@link TransferIdempotencyStore}
+ * in the same transaction as the transfer row, so a stored key always means the transfer happened.
+ * Deleted after the retention by {@link TransferIdempotencySweeper}.
+ */
+@Entity
+@Table(name = "transfer_idempotency",
+        uniqueConstraints = @UniqueConstraint(name = "uk_transfer_idempotency_key", columnNames = {"user_id", "idem_key"}),
+        indexes = @Index(name = "ix_transfer_idempotency_created_at", columnList = "created_at"))
+public class TransferIdempotencyEntity {
+
+    @Id
+    @Column(name = "transfer_id", nullable = false, updatable = false)
+    private UUID transferId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "idem_key", nullable = false, length = 255, updatable = false)
+    private String idemKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64, updatable = false)
+    private String requestHash; // sha-256 hex of the request body fields
+
+    @Column(name = "new_balance_enc", nullable = false, length = 38, updatable = false)
+    private byte[] newBalanceEnc; // sender balance after the transfer (BalanceCodec format)
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public TransferIdempotencyEntity() {}
+
+    public UUID getTransferId() { return transferId; }
+    public UUID getUserId() { return userId; }
+    public String getIdemKey() { return idemKey; }
+    public String getRequestHash() { return requestHash; }
+    public byte[] getNewBalanceEnc() { return newBalanceEnc; }
+    public Instant getCreatedAt() { return createdAt; }
+}
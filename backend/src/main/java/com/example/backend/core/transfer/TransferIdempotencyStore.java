@@ -0,0 +1,58 @@
+package com.example.backend.core.transfer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to transfer_idempotency. Inserts join the caller's transaction: a duplicate
+ * (user_id, idem_key) fails with DuplicateKeyException and rolls the transfer back with it.
+ */
+@Component
+public class TransferIdempotencyStore {
+
+    private static final String INSERT = "insert into transfer_idempotency " +
+            "(transfer_id, user_id, idem_key, request_hash, new_balance_enc, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT = "select transfer_id, request_hash, new_balance_enc, created_at " +
+            "from transfer_idempotency where user_id = ? and idem_key = ?";
+
+    public record Entry(UUID transferId, UUID userId, String idemKey, String requestHash, byte[] newBalanceEnc, Instant createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(List<Entry> entries) {
+        if (entries.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, e) -> {
+            ps.setObject(1, e.transferId());
+            ps.setObject(2, e.userId());
+            ps.setString(3, e.idemKey());
+            ps.setString(4, e.requestHash());
+            ps.setBytes(5, e.newBalanceEnc());
+            ps.setObject(6, OffsetDateTime.ofInstant(e.createdAt(), ZoneOffset.UTC));
+        });
+    }
+
+    public Optional<Entry> find(UUID userId, String idemKey) {
+        List<Entry> rows = jdbcTemplate.query(SELECT, (rs, i) -> new Entry(
+                rs.getObject("transfer_id", UUID.class),
+                userId,
+                idemKey,
+                rs.getString("request_hash"),
+                rs.getBytes("new_balance_enc"),
+                rs.getObject("created_at", OffsetDateTime.class).toInstant()
+        ), userId, idemKey);
+        return rows.stream().findFirst();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.backend.core.transfer;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Deletes Idempotency-Keys older than the retention (vaultbank.transfer.idempotency.retention, default 7 days),
+ * in batches, every sweep interval. A retry with an expired key runs as a new transfer, so the retention
+ * must outlast any client retry window; it is never shorter than the in-memory cache TTL.
+ */
+@Component
+public class TransferIdempotencySweeper implements BackgroundJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferIdempotencySweeper.class);
+
+    // Rows being inserted or read for update are skipped and deleted on a later sweep
+    private static final String SWEEP = "delete from transfer_idempotency where transfer_id in " +
+            "(select transfer_id from transfer_idempotency where created_at < ? order by created_at limit ? for update skip locked)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+    private final Duration interval;
+    private final int batchSize;
+
+    private final Counter expired;
+
+    public TransferIdempotencySweeper(JdbcTemplate jdbcTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${vaultbank.transfer.idempotency.sweep.enabled:true}") boolean enabled,
+                                      @Value("${vaultbank.transfer.idempotency.retention:7d}") Duration retention,
+                                      @Value("${vaultbank.transfer.idempotency.cache.ttl:24h}") Duration cacheTtl,
+                                      @Value("${vaultbank.transfer.idempotency.sweep.interval:1m}") Duration interval,
+                                      @Value("${vaultbank.transfer.idempotency.sweep.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.retention = retention.compareTo(cacheTtl) < 0 ? cacheTtl : retention;
+        this.interval = interval;
+        this.batchSize = Math.max(1, batchSize);
+
+        this.expired = Counter.builder("vaultbank.transfer.idempotency.expired")
+                .description("Idempotency-Keys deleted after the retention")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() { return "idempotency-sweeper"; }
+
+    @Override
+    public boolean enabled() { return enabled; }
+
+    @Override
+    public void run(BackgroundJobs.Worker worker) throws InterruptedException {
+        while (!worker.stopRequested()) {
+            try {
+                sweep(worker, Instant.now().minus(retention));
+            } catch (RuntimeException ex) {
+                log.warn("Idempotency-Key sweep failed", ex);
+            }
+            Thread.sleep(interval.toMillis());
+        }
+    }
+
+    // Each batch is its own statement (autocommit): the row locks are held for one batch only
+    private void sweep(BackgroundJobs.Worker worker, Instant before) {
+        OffsetDateTime at = OffsetDateTime.ofInstant(before, ZoneOffset.UTC);
+        while (!worker.stopRequested()) {
+            int n = jdbcTemplate.update(SWEEP, at, batchSize);
+            expired.increment(n);
+            if (n < batchSize) break;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.backend.core.transfer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes transfer rows with JDBC batch inserts, inside the caller's transaction.
+ * TransferEntity ids are assigned up front, so there is nothing for JPA to generate or merge.
+ */
+@Component
+public class TransferJournal {
+
+    private static final String INSERT = "insert into transfers " +
+            "(id, from_user_id, to_user_id, from_iban, to_iban, causal, amount, created_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferJournal(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(List<TransferEntity> transfers) {
+        if (transfers.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT, transfers, transfers.size(), (ps, t) -> {
+            ps.setObject(1, t.getId());
+            ps.setObject(2, t.getFromUserId());
+            if (t.getToUserId() != null) ps.setObject(3, t.getToUserId());
+            else ps.setNull(3, Types.OTHER); // external transfer
+            ps.setString(4, t.getFromIban());
+            ps.setString(5, t.getToIban());
+            ps.setString(6, t.getCausal());
+            ps.setBigDecimal(7, t.getAmount());
+            ps.setObject(8, OffsetDateTime.ofInstant(t.getCreatedAt(), ZoneOffset.UTC));
+        });
+    }
+}
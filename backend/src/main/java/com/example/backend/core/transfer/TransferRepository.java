@@ -1,21 +1,43 @@
 package com.example.backend.core.transfer;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public interface TransferRepository extends JpaRepository<TransferEntity, UUID> {
 
-    long countByFromUserIdAndCreatedAtAfter(UUID fromUserId, Instant after);
-    boolean existsByFromUserIdAndToIban(UUID fromUserId, String toIban);
+    interface OutgoingAmount {
+        Instant getCreatedAt();
+        BigDecimal getAmount();
+    }
 
-    @Query("select t from TransferEntity t " +
-            "where t.fromUserId = :uid or t.toUserId = :uid " +
-            "order by t.createdAt desc")
-    List<TransferEntity> findLatestMovements(@Param("uid") UUID uid, Pageable pageable);
+    /**
+     * Outgoing transfers of a user after the given instant (range scan on (from_user_id, created_at)).
+     */
+    @Query("select t.createdAt as createdAt, t.amount as amount from TransferEntity t " +
+            "where t.fromUserId = :uid and t.createdAt > :after")
+    List<OutgoingAmount> findOutgoingSince(@Param("uid") UUID uid, @Param("after") Instant after);
+
+    /**
+     * Movements of a user strictly older than (createdAt, id), newest first.
+     * The OR is split into two branches so each one is a range scan on its own (user, created_at, id) index;
+     * self-transfers are impossible, the {@code <>} only keeps a row from showing up twice.
+     */
+    @Query(value = "select m.* from (" +
+            "(select t.* from transfers t where t.from_user_id = :uid " +
+            "and (t.created_at, t.id) < (:createdAt, :id) order by t.created_at desc, t.id desc limit :limit) " +
+            "union all " +
+            "(select t.* from transfers t where t.to_user_id = :uid and t.from_user_id <> :uid " +
+            "and (t.created_at, t.id) < (:createdAt, :id) order by t.created_at desc, t.id desc limit :limit)" +
+            ") m order by m.created_at desc, m.id desc limit :limit",
+            nativeQuery = true)
+    List<TransferEntity> findMovementsBefore(@Param("uid") UUID uid,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") UUID id,
+                                             @Param("limit") int limit);
 }
@@ -0,0 +1,33 @@
+package com.example.backend.core.user;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops indexes on users that the entity no longer declares: ddl-auto=update only adds.
+ * ix_users_iban is covered by the uk_users_iban unique constraint.
+ */
+@Component
+public class LegacyUserIndexes {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyUserIndexes.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LegacyUserIndexes(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropOnBoot() {
+        try {
+            jdbcTemplate.execute("drop index if exists ix_users_iban");
+        } catch (RuntimeException ex) {
+            log.warn("Could not drop ix_users_iban", ex);
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.backend.core.user;
 
+import com.example.backend.core.id.UuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_email", columnNames = "email"))
-public class UserEntity {
+@Table(name = "users",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+                @UniqueConstraint(name = "uk_users_iban", columnNames = "iban")
+        },
+        indexes = @Index(name = "ix_users_locked_until", columnList = "locked_until"))
+public class UserEntity implements Persistable<UUID> {
 
     @Id
     @Column(nullable = false, updatable = false)
@@ -28,7 +36,13 @@ public class UserEntity {
     private String phoneEnc;
 
     @Column(name = "balance_enc", length = 2048)
-    private String balanceEnc;
+    private String balanceEnc; // legacy: encrypted BigDecimal string, null once migrated
+
+    @Column(name = "balance_cents_enc", length = 38)
+    private byte[] balanceCentsEnc;
+
+    @Column(name = "ledger_seq")
+    private Long ledgerSeq; // last ledger_entries.seq of this account; null until its history is backfilled
 
     @Column(name = "iban", length = 34)
     private String iban;
@@ -42,20 +56,41 @@ public class UserEntity {
     @Column(name = "lock_reason", length = 200)
     private String lockReason;
 
+    // Bumped by every write, JDBC ones included (key rotation, balance migration): optimistic transfers check it
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Assigned id: without this, save() of a new user is a merge (SELECT by id, then INSERT)
+    @Transient
+    private boolean isNew;
+
     public UserEntity() {}
 
     public static UserEntity create(String email, String passwordHash) {
         UserEntity u = new UserEntity();
-        u.id = UUID.randomUUID();
+        u.id = UuidV7.next();
         u.email = email.toLowerCase();
         u.passwordHash = passwordHash;
         u.createdAt = Instant.now();
+        u.ledgerSeq = 0L;
+        u.isNew = true;
         return u;
     }
 
+    @PostPersist
+    @PostLoad
+    void markNotNew() { this.isNew = false; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @Override
     public UUID getId() { return id; }
     public String getEmail() { return email; }
     public String getPasswordHash() { return passwordHash; }
+    public long getVersion() { return version; }
     public Instant getCreatedAt() { return createdAt; }
 
     public String getFirstNameEnc() { return firstNameEnc; }
@@ -70,6 +105,12 @@ public class UserEntity {
     public String getBalanceEnc() { return balanceEnc; }
     public void setBalanceEnc(String balanceEnc) { this.balanceEnc = balanceEnc; }
 
+    public byte[] getBalanceCentsEnc() { return balanceCentsEnc; }
+    public void setBalanceCentsEnc(byte[] balanceCentsEnc) { this.balanceCentsEnc = balanceCentsEnc; }
+
+    public Long getLedgerSeq() { return ledgerSeq; }
+    public void setLedgerSeq(Long ledgerSeq) { this.ledgerSeq = ledgerSeq; }
+
     public String getIban() { return iban; }
     public void setIban(String iban) { this.iban = iban; }
 
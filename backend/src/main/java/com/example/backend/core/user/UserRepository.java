@@ -4,9 +4,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import java.util.Optional;
 
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,5 +20,35 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     @Query("select u from UserEntity u where u.id = :id")
     Optional<UserEntity> findByIdForUpdate(@Param("id") UUID id);
 
+    /**
+     * Sender by id and (if internal) recipient by IBAN, locked in one statement.
+     * ORDER BY runs before FOR UPDATE, so rows are always locked in id order: no deadlock between opposite transfers.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from UserEntity u where u.id = :fromId or u.iban = :toIban order by u.id")
+    List<UserEntity> lockTransferParties(@Param("fromId") UUID fromId, @Param("toIban") String toIban);
+
+    /**
+     * Same rows as {@link #lockTransferParties}, without locks (optimistic transfers: the version is checked on write).
+     */
+    @Query("select u from UserEntity u where u.id = :fromId or u.iban = :toIban")
+    List<UserEntity> findTransferParties(@Param("fromId") UUID fromId, @Param("toIban") String toIban);
+
+    /**
+     * All accounts of a batch (senders by id, internal recipients by IBAN) locked once, in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from UserEntity u where u.id in :ids or u.iban in :ibans order by u.id")
+    List<UserEntity> lockAccounts(@Param("ids") Collection<UUID> ids, @Param("ibans") Collection<String> ibans);
+
+    /**
+     * Accounts locked by id only, in id order (batches whose recipients are all external).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from UserEntity u where u.id in :ids order by u.id")
+    List<UserEntity> lockByIds(@Param("ids") Collection<UUID> ids);
+
     Optional<UserEntity> findByIban(String iban);
-}
\ No newline at end of file
+
+    boolean existsByIban(String iban);
+}
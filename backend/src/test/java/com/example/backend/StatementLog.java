@@ -0,0 +1,104 @@
+package com.example.backend;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SQL of every round trip made by the thread that called start().
+ * Tests add it with {@code @Import(StatementLog.Config.class)}: the DataSource is wrapped to record
+ * each execute/executeBatch (one round trip each).
+ */
+public class StatementLog {
+
+    private volatile Thread owner;
+    private final List<String> executed = new ArrayList<>();
+
+    public void start() {
+        synchronized (executed) { executed.clear(); }
+        owner = Thread.currentThread();
+    }
+
+    public List<String> stop() {
+        owner = null;
+        synchronized (executed) { return List.copyOf(executed); }
+    }
+
+    void executed(String sql) {
+        if (Thread.currentThread() != owner) return;
+        synchronized (executed) { executed.add(sql.strip().toLowerCase(Locale.ROOT)); }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        StatementLog statementLog() {
+            return new StatementLog();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource(ObjectProvider<StatementLog> log) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource ds) || bean instanceof CountingDataSource) return bean;
+                    return new CountingDataSource(ds, log);
+                }
+            };
+        }
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+        private final ObjectProvider<StatementLog> log;
+
+        CountingDataSource(DataSource target, ObjectProvider<StatementLog> log) {
+            super(target);
+            this.log = log;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connection(super.getConnection());
+        }
+
+        private Connection connection(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                            return statement(result, method.getReturnType(), sql);
+                        }
+                        return result;
+                    });
+        }
+
+        private Object statement(Object target, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) log.getObject().executed(sql);
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
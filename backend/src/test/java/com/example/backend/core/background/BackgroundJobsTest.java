@@ -0,0 +1,88 @@
+package com.example.backend.core.background;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackgroundJobsTest {
+
+    private final BackgroundJobs jobs = new BackgroundJobs(new DefaultListableBeanFactory().getBeanProvider(BackgroundJob.class));
+
+    @Test
+    void runsOnceAtATimeAndStopsOnRequest() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger finished = new AtomicInteger();
+        BackgroundJob job = job("looping", 2, worker -> {
+            started.countDown();
+            while (!worker.stopRequested()) Thread.sleep(10_000);
+            finished.incrementAndGet();
+        });
+
+        assertTrue(jobs.start(job));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(jobs.isRunning("looping"));
+        assertFalse(jobs.start(job), "already running");
+
+        jobs.stop();
+        assertFalse(jobs.isRunning("looping"));
+        assertEquals(0, finished.get(), "the interrupt ends the sleep, not the loop condition");
+        assertFalse(jobs.start(job), "context stopping");
+    }
+
+    @Test
+    void finishedOrFailedJobCanStartAgain() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(2);
+        BackgroundJob job = job("failing", 1, worker -> {
+            ran.countDown();
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(jobs.start(job));
+        awaitStopped("failing");
+        assertTrue(jobs.start(job));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        awaitStopped("failing");
+    }
+
+    @Test
+    void paceSleepsOnlyWhenAhead() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] elapsed = new long[2];
+        jobs.start(job("pacing", 1, worker -> {
+            long start = System.nanoTime();
+            worker.pace(start, 0, 100);
+            elapsed[0] = System.nanoTime() - start;
+            worker.pace(start, 20, 100);
+            elapsed[1] = System.nanoTime() - start;
+            done.countDown();
+        }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(elapsed[0] < TimeUnit.MILLISECONDS.toNanos(100), "nothing done yet: no sleep");
+        assertTrue(elapsed[1] >= TimeUnit.MILLISECONDS.toNanos(200), "20 units at 100/s take 200ms");
+    }
+
+    private void awaitStopped(String name) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jobs.isRunning(name) && System.nanoTime() < deadline) Thread.sleep(5);
+        assertFalse(jobs.isRunning(name));
+    }
+
+    private interface Body {
+        void run(BackgroundJobs.Worker worker) throws InterruptedException;
+    }
+
+    private static BackgroundJob job(String name, int threads, Body body) {
+        return new BackgroundJob() {
+            @Override public String name() { return name; }
+            @Override public boolean enabled() { return true; }
+            @Override public int threads() { return threads; }
+            @Override public void run(BackgroundJobs.Worker worker) throws InterruptedException { body.run(worker); }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.crypto.AesKeyRing;
+import com.example.backend.core.crypto.CryptoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceCodecTest {
+
+    private final CryptoService crypto = new CryptoService(
+            new AesKeyRing(Map.of(1, new SecretKeySpec(new byte[32], "AES")), 1, 1), 1, 256, 4);
+    private final BalanceCodec codec = new BalanceCodec(crypto);
+
+    @AfterEach
+    void shutdown() {
+        crypto.shutdown();
+    }
+
+    @Test
+    void roundTripsEveryLongWithAFixedLength() {
+        for (long cents : new long[]{0, 1, -1, 100_000, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            byte[] stored = codec.encrypt(cents);
+            assertEquals(BalanceCodec.ENCODED_LEN, stored.length);
+            assertEquals(cents, codec.decrypt(stored));
+        }
+    }
+
+    @Test
+    void centsBounds() {
+        assertEquals(Long.MAX_VALUE, BalanceCodec.toCents(new BigDecimal("92233720368547758.07")));
+        assertEquals(Long.MIN_VALUE, BalanceCodec.toCents(new BigDecimal("-92233720368547758.08")));
+        assertThrows(IllegalArgumentException.class, () -> BalanceCodec.toCents(new BigDecimal("92233720368547758.08")));
+        assertThrows(IllegalArgumentException.class, () -> BalanceCodec.toCents(new BigDecimal("-92233720368547758.09")));
+    }
+
+    @Test
+    void roundsHalfUpToCents() {
+        assertEquals(1235, BalanceCodec.toCents(new BigDecimal("12.345")));
+        assertEquals(1234, BalanceCodec.toCents(new BigDecimal("12.344")));
+        assertEquals(-1235, BalanceCodec.toCents(new BigDecimal("-12.345")));
+        assertEquals(new BigDecimal("12.34"), BalanceCodec.fromCents(1234));
+    }
+
+    @Test
+    void rejectsOtherPlaintextLengths() {
+        assertThrows(IllegalStateException.class, () -> codec.decrypt(crypto.seal(new byte[4])));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.core.banking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void neverForgetsAnAddedKey() {
+        BloomFilter bloom = new BloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) bloom.add(iban(i));
+
+        for (int i = 0; i < KEYS; i++) assertTrue(bloom.mightContain(iban(i)), iban(i));
+    }
+
+    @Test
+    void concurrentAddsAreAllKept() {
+        BloomFilter bloom = new BloomFilter(KEYS, 0.01);
+        IntStream.range(0, KEYS).parallel().forEach(i -> bloom.add(iban(i)));
+
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < KEYS; i++) {
+            if (!bloom.mightContain(iban(i))) missing.add(iban(i));
+        }
+        assertEquals(List.of(), missing);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter bloom = new BloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) bloom.add(iban(i));
+
+        int falsePositives = 0;
+        for (int i = KEYS; i < 2 * KEYS; i++) {
+            if (bloom.mightContain(iban(i))) falsePositives++;
+        }
+        double rate = falsePositives / (double) KEYS;
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+        assertEquals(0.01, bloom.expectedFalsePositiveRate(KEYS), 0.002);
+    }
+
+    private static String iban(int i) {
+        return String.format("IT60X05428111010000%08d", i);
+    }
+}
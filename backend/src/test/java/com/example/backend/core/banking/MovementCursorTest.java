@@ -0,0 +1,56 @@
+package com.example.backend.core.banking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovementCursorTest {
+
+    @Test
+    void keysetRoundTripKeepsMicrosecondPrecision() {
+        MovementCursor c = MovementCursor.keyset(Instant.parse("2025-03-01T10:15:30.123456Z"), UUID.randomUUID());
+
+        MovementCursor decoded = MovementCursor.decode(c.encode());
+
+        assertTrue(decoded.isKeyset());
+        assertEquals(c.createdAt(), decoded.createdAt());
+        assertEquals(c.id(), decoded.id());
+    }
+
+    @Test
+    void ledgerRoundTrip() {
+        MovementCursor decoded = MovementCursor.decode(MovementCursor.ledger(42).encode());
+
+        assertFalse(decoded.isKeyset());
+        assertEquals(42, decoded.seq());
+    }
+
+    @Test
+    void encodingIsUrlSafe() {
+        String encoded = MovementCursor.keyset(Instant.now(), new UUID(-1L, -1L)).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        String valid = MovementCursor.keyset(Instant.now(), UUID.randomUUID()).encode();
+        byte[] raw = Base64.getUrlDecoder().decode(valid);
+
+        assertInvalid("not a cursor!");
+        assertInvalid("");
+        assertInvalid(valid.substring(0, valid.length() - 2));
+        assertInvalid(valid + "AA");
+        assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(raw, 16)));
+    }
+
+    private static void assertInvalid(String cursor) {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> MovementCursor.decode(cursor), cursor);
+        assertEquals("Invalid cursor", ex.getMessage());
+    }
+}
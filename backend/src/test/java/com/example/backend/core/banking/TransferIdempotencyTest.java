@@ -0,0 +1,107 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.core.auth.AuthService;
+import com.example.backend.core.transfer.TransferIdempotencyStore;
+import com.example.backend.core.user.UserEntity;
+import com.example.backend.core.user.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/banking/transfer with an Idempotency-Key: a retry gets the first outcome and moves no money.
+ */
+@SpringBootTest(properties = {
+        "vaultbank.balance.migration.enabled=false",
+        "vaultbank.ledger.backfill.enabled=false",
+        "vaultbank.beneficiaries.backfill.enabled=false",
+        "vaultbank.settlement.enabled=false"
+})
+@AutoConfigureMockMvc
+class TransferIdempotencyTest {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Autowired MockMvc mvc;
+    @Autowired AuthService authService;
+    @Autowired UserRepository userRepository;
+    @Autowired BalanceCodec balanceCodec;
+    @Autowired TransferIdempotencyStore store;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replayReturnsTheFirstOutcomeAndDebitsOnce() throws Exception {
+        UserEntity from = register();
+        UserEntity to = register();
+        String token = authService.login(from.getEmail(), PASSWORD).token();
+        String key = UUID.randomUUID().toString();
+
+        String first = transfer(token, key, to.getIban(), "1.00").andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        String second = transfer(token, key, to.getIban(), "1.00").andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        assertEquals((String) JsonPath.read(first, "$.id"), JsonPath.read(second, "$.id"));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from transfers where from_user_id = ?", Integer.class, from.getId()));
+        assertEquals(999_00L, balanceCodec.readCents(userRepository.findById(from.getId()).orElseThrow()));
+    }
+
+    @Test
+    void replayIsAnsweredFromTheTableOnceTheCacheIsGone() throws Exception {
+        UserEntity from = register();
+        UserEntity to = register();
+        String token = authService.login(from.getEmail(), PASSWORD).token();
+        String key = UUID.randomUUID().toString();
+
+        String first = transfer(token, key, to.getIban(), "2.50").andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        // A fresh instance, as after a restart or on another node
+        TransferIdempotency restarted = new TransferIdempotency(store, balanceCodec, new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        BankingService.Idempotency idem = new BankingService.Idempotency(key,
+                TransferIdempotency.requestHash(to.getIban(), new BigDecimal("2.50"), "idempotency"));
+        BankingService.TransferResult replay = restarted.execute(from.getId(), idem, () -> fail("transfer executed twice"));
+
+        assertEquals(UUID.fromString(JsonPath.read(first, "$.id")), replay.transferId());
+        assertEquals(0, new BigDecimal("997.50").compareTo(replay.newBalance()));
+    }
+
+    @Test
+    void sameKeyWithAnotherRequestIsRejected() throws Exception {
+        UserEntity from = register();
+        UserEntity to = register();
+        String token = authService.login(from.getEmail(), PASSWORD).token();
+        String key = UUID.randomUUID().toString();
+
+        transfer(token, key, to.getIban(), "1.00").andExpect(status().isOk());
+        transfer(token, key, to.getIban(), "3.00").andExpect(status().isConflict());
+
+        assertEquals(999_00L, balanceCodec.readCents(userRepository.findById(from.getId()).orElseThrow()));
+    }
+
+    private ResultActions transfer(String token, String key, String toIban, String amount) throws Exception {
+        return mvc.perform(post("/api/banking/transfer")
+                .header("Authorization", "Bearer " + token)
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"toIban\": \"" + toIban + "\", \"amount\": " + amount + ", \"causal\": \"idempotency\"}"));
+    }
+
+    private UserEntity register() {
+        String email = "idem-" + UUID.randomUUID() + "@vaultbank.test";
+        authService.register(email, PASSWORD, "Idem", "Test", "+39 333 0000000");
+        return userRepository.findByEmail(email).orElseThrow();
+    }
+}
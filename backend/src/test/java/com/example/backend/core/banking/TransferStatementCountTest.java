@@ -0,0 +1,115 @@
+package com.example.backend.core.banking;
+
+import com.example.backend.StatementLog;
+import com.example.backend.core.auth.AuthService;
+import com.example.backend.core.beneficiary.BeneficiaryIndex;
+import com.example.backend.core.user.UserEntity;
+import com.example.backend.core.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips per write path, counted at the JDBC level (one execute or executeBatch = one round trip)
+ * on the calling thread only.
+ */
+@SpringBootTest(properties = {
+        "vaultbank.balance.migration.enabled=false",
+        "vaultbank.ledger.backfill.enabled=false",
+        "vaultbank.beneficiaries.backfill.enabled=false",
+        "vaultbank.settlement.enabled=false"
+})
+@Import(StatementLog.Config.class)
+class TransferStatementCountTest {
+
+    @Autowired AuthService authService;
+    @Autowired BankingService bankingService;
+    @Autowired UserRepository userRepository;
+    @Autowired BeneficiaryIndex beneficiaryIndex;
+    @Autowired StatementLog statements;
+
+    @Test
+    void registrationInsertsWithoutMergeSelect() {
+        String email = "count-" + UUID.randomUUID() + "@vaultbank.test";
+
+        statements.start();
+        authService.register(email, "Password123!", "Count", "Test", "+39 333 0000000");
+        List<String> sql = statements.stop();
+
+        // existsByEmail + the insert: no SELECT by id before it
+        assertEquals(2, sql.size(), () -> "Statements: " + sql);
+        assertEquals(1, count(sql, "insert into users"), () -> "Statements: " + sql);
+    }
+
+    @Test
+    void internalTransferIsOneRoundTripPerTable() {
+        UserEntity from = register();
+        UserEntity to = register();
+
+        statements.start();
+        bankingService.transfer(from.getId(), to.getIban(), new BigDecimal("1.00"), "count");
+        List<String> sql = statements.stop();
+
+        // Lock both parties, both balances in one batch, then transfers / daily totals / new beneficiary / ledger
+        assertEquals(1, count(sql, "update users"), () -> "Statements: " + sql);
+        assertEquals(1, count(sql, "insert into transfers"), () -> "Statements: " + sql);
+        assertEquals(1, count(sql, "insert into beneficiaries"), () -> "Statements: " + sql);
+        assertEquals(1, count(sql, "insert into ledger_entries"), () -> "Statements: " + sql);
+        assertEquals(0, count(sql, "insert into settlement_outbox"), () -> "Statements: " + sql);
+        assertTrue(sql.size() <= 6, () -> "Statements: " + sql);
+    }
+
+    @Test
+    void knownBeneficiaryWritesNoBeneficiaryRow() {
+        UserEntity from = register();
+        UserEntity to = register();
+        assertFalse(beneficiaryIndex.isKnown(from.getId(), to.getIban()));
+        bankingService.transfer(from.getId(), to.getIban(), new BigDecimal("1.00"), "count");
+        assertTrue(beneficiaryIndex.isKnown(from.getId(), to.getIban()));
+
+        statements.start();
+        bankingService.transfer(from.getId(), to.getIban(), new BigDecimal("1.00"), "count");
+        List<String> sql = statements.stop();
+
+        assertEquals(0, count(sql, "insert into beneficiaries"), () -> "Statements: " + sql);
+        assertTrue(sql.size() <= 5, () -> "Statements: " + sql);
+    }
+
+    @Test
+    void batchOfTransfersDoesNotGrowWithItems() {
+        UserEntity from = register();
+        List<BankingService.TransferCommand> commands = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            commands.add(new BankingService.TransferCommand(from.getId(), register().getIban(), new BigDecimal("1.00"), "count"));
+        }
+
+        statements.start();
+        bankingService.executeBatch(commands, true);
+        List<String> sql = statements.stop();
+
+        // 21 balances, 20 transfers, 20 beneficiaries, 40 postings: still one round trip each
+        assertEquals(1, count(sql, "update users"), () -> "Statements: " + sql);
+        assertEquals(1, count(sql, "insert into transfers"), () -> "Statements: " + sql);
+        assertEquals(1, count(sql, "insert into beneficiaries"), () -> "Statements: " + sql);
+        assertEquals(1, count(sql, "insert into ledger_entries"), () -> "Statements: " + sql);
+        assertTrue(sql.size() <= 6, () -> "Statements: " + sql);
+    }
+
+    private UserEntity register() {
+        String email = "count-" + UUID.randomUUID() + "@vaultbank.test";
+        authService.register(email, "Password123!", "Count", "Test", "+39 333 0000000");
+        return userRepository.findByEmail(email).orElseThrow();
+    }
+
+    private static long count(List<String> sql, String prefix) {
+        return sql.stream().filter(s -> s.startsWith(prefix)).count();
+    }
+}
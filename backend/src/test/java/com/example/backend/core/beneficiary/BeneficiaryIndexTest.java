@@ -0,0 +1,57 @@
+package com.example.backend.core.beneficiary;
+
+import com.example.backend.core.transfer.TransferEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficiaryIndexTest {
+
+    private static final String IBAN = "IT60X0542811101000000123456";
+
+    private final List<String> table = new ArrayList<>();
+    private final BeneficiaryIndex index = new BeneficiaryIndex(repository(), new SimpleMeterRegistry(), 1000);
+
+    @Test
+    void ibansReadBeforeACommittedTransferAreNotCached() {
+        UUID userId = UUID.randomUUID();
+        long stamp = index.stamp(userId);
+        List<String> readBeforeCommit = List.of();
+
+        // The transfer commits between the read and the cache load
+        table.add(IBAN);
+        index.recordAfterCommit(List.of(transfer(userId)));
+
+        assertFalse(index.isKnown(userId, IBAN, stamp, () -> readBeforeCommit));
+        assertTrue(index.isKnown(userId, IBAN), "stale set dropped, reloaded from the table");
+    }
+
+    @Test
+    void transferOfACachedUserIsAddedInPlace() {
+        UUID userId = UUID.randomUUID();
+        assertFalse(index.isKnown(userId, IBAN, index.stamp(userId), List::of));
+
+        index.recordAfterCommit(List.of(transfer(userId)));
+
+        assertTrue(index.isCachedKnown(userId, IBAN));
+    }
+
+    private static TransferEntity transfer(UUID userId) {
+        return TransferEntity.create(userId, null, "IT02L1234512345123456789012", IBAN, "Bonifico", new BigDecimal("10.00"));
+    }
+
+    private BeneficiaryRepository repository() {
+        return (BeneficiaryRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{BeneficiaryRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findIbansByUserId")) return List.copyOf(table);
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.backend.core.crypto;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoServiceTest {
+
+    private static final SecretKey KEY_1 = key(1);
+
+    private final CryptoService crypto = new CryptoService(new AesKeyRing(Map.of(1, KEY_1), 1, 1), 1, 256, 4);
+
+    @AfterEach
+    void shutdown() {
+        crypto.shutdown();
+    }
+
+    @Test
+    void envelopeRoundTrip() {
+        String stored = crypto.encryptString("Mario Rossi");
+
+        byte[] envelope = Base64.getDecoder().decode(stored);
+        assertEquals(CryptoService.ENVELOPE_V1, envelope[0]);
+        assertEquals(1, envelope[1], "key id");
+        assertEquals("Mario Rossi", crypto.decryptString(stored));
+        assertNotEquals(stored, crypto.encryptString("Mario Rossi"), "fresh IV per value");
+    }
+
+    @Test
+    void readsLegacyFormat() throws Exception {
+        byte[] iv = new byte[12];
+        iv[0] = 7;
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, KEY_1, new GCMParameterSpec(128, iv));
+        byte[] ciphertext = cipher.doFinal("+39 333 1234567".getBytes(StandardCharsets.UTF_8));
+        String legacy = Base64.getEncoder().encodeToString(iv) + ":" + Base64.getEncoder().encodeToString(ciphertext);
+
+        assertEquals("+39 333 1234567", crypto.decryptString(legacy));
+    }
+
+    @Test
+    void rejectsTamperedEnvelope() {
+        byte[] envelope = Base64.getDecoder().decode(crypto.encryptString("Mario Rossi"));
+        envelope[envelope.length - 1] ^= 1;
+
+        assertThrows(IllegalStateException.class, () -> crypto.decryptString(Base64.getEncoder().encodeToString(envelope)));
+    }
+
+    @Test
+    void rotatesToTheActiveKeyAndKeepsReadingTheOldOne() {
+        String oldValue = crypto.encryptString("Mario Rossi");
+        byte[] oldBalance = crypto.seal(new byte[]{1, 2, 3});
+
+        CryptoService rotated = new CryptoService(new AesKeyRing(Map.of(1, KEY_1, 2, key(2)), 2, 1), 1, 256, 4);
+        try {
+            assertTrue(rotated.needsRotation(oldValue));
+            assertTrue(rotated.needsRotation(oldBalance));
+            assertEquals("Mario Rossi", rotated.decryptString(oldValue));
+
+            String newValue = rotated.reencryptString(oldValue);
+            byte[] newBalance = rotated.reseal(oldBalance);
+            assertFalse(rotated.needsRotation(newValue));
+            assertFalse(rotated.needsRotation(newBalance));
+            assertEquals(2, newBalance[1], "key id");
+            assertEquals("Mario Rossi", rotated.decryptString(newValue));
+            assertArrayEquals(new byte[]{1, 2, 3}, rotated.open(newBalance));
+
+            // The old service has no key 2: once every value is rotated, key 1 is the one that can go
+            assertThrows(IllegalStateException.class, () -> crypto.decryptString(newValue));
+        } finally {
+            rotated.shutdown();
+        }
+    }
+
+    @Test
+    void legacyValuesAlwaysNeedRotation() {
+        assertTrue(crypto.needsRotation("AAAAAAAAAAAAAAAA:AAAA"));
+        assertFalse(crypto.needsRotation((String) null));
+    }
+
+    @Test
+    void keyRingRejectsMissingActiveKey() {
+        assertThrows(IllegalStateException.class, () -> new AesKeyRing(Map.of(1, KEY_1), 2, 1));
+        assertThrows(IllegalStateException.class, () -> new AesKeyRing(Map.of(256, KEY_1), 256, 256));
+    }
+
+    static SecretKey key(int seed) {
+        byte[] raw = new byte[32];
+        raw[0] = (byte) seed;
+        return new SecretKeySpec(raw, "AES");
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.backend.core.fraud;
+
+import com.example.backend.StatementLog;
+import com.example.backend.core.auth.AuthService;
+import com.example.backend.core.banking.BalanceCodec;
+import com.example.backend.core.banking.BankingService;
+import com.example.backend.core.banking.IbanGenerator;
+import com.example.backend.core.user.UserEntity;
+import com.example.backend.core.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of a fraud evaluation on the calling thread: one for a user not loaded yet, none afterwards.
+ */
+@SpringBootTest(properties = {
+        "vaultbank.balance.migration.enabled=false",
+        "vaultbank.ledger.backfill.enabled=false",
+        "vaultbank.beneficiaries.backfill.enabled=false",
+        "vaultbank.settlement.enabled=false"
+})
+@Import(StatementLog.Config.class)
+class FraudFeatureStatementCountTest {
+
+    private static final String EXTERNAL_IBAN = "IT60X0542811101000000123456";
+
+    @Autowired AuthService authService;
+    @Autowired BankingService bankingService;
+    @Autowired FraudService fraudService;
+    @Autowired FraudFeatureLoader featureLoader;
+    @Autowired UserRepository userRepository;
+    @Autowired BalanceCodec balanceCodec;
+    @Autowired IbanGenerator ibanGenerator;
+    @Autowired LockRegistry lockRegistry;
+    @Autowired StatementLog statements;
+
+    // Until the registry has loaded, lock state comes from the users row
+    @BeforeEach
+    void awaitLockRegistry() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!lockRegistry.isLoaded() && System.nanoTime() < deadline) Thread.sleep(10);
+        assertTrue(lockRegistry.isLoaded(), "Lock registry not loaded");
+    }
+
+    @Test
+    void coldUserIsOneRoundTripThenNone() {
+        UserEntity u = coldUser();
+
+        statements.start();
+        fraudService.evaluate(u.getId(), EXTERNAL_IBAN, new BigDecimal("600.00"), Instant.now());
+        List<String> sql = statements.stop();
+
+        assertEquals(1, sql.size(), () -> "Statements: " + sql);
+        assertTrue(sql.get(0).startsWith("select u.created_at"), () -> "Statements: " + sql);
+
+        statements.start();
+        fraudService.evaluate(u.getId(), EXTERNAL_IBAN, new BigDecimal("600.00"), Instant.now());
+        List<String> again = statements.stop();
+
+        assertEquals(0, again.size(), () -> "Statements: " + again);
+    }
+
+    @Test
+    void registeredUserNeedsNoQuery() {
+        String email = "fraud-" + UUID.randomUUID() + "@vaultbank.test";
+        authService.register(email, "Password123!", "Fraud", "Test", "+39 333 0000000");
+        UserEntity u = userRepository.findByEmail(email).orElseThrow();
+
+        statements.start();
+        FraudDecision d = fraudService.evaluate(u.getId(), EXTERNAL_IBAN, new BigDecimal("600.00"), Instant.now());
+        List<String> sql = statements.stop();
+
+        assertEquals(0, sql.size(), () -> "Statements: " + sql);
+        assertTrue(d.reasons().contains("New beneficiary with medium/high amount"));
+    }
+
+    @Test
+    void singleFetchCarriesHistory() {
+        UserEntity u = coldUser();
+        bankingService.transfer(u.getId(), EXTERNAL_IBAN, new BigDecimal("10.00"), "features");
+        bankingService.transfer(u.getId(), EXTERNAL_IBAN, new BigDecimal("15.00"), "features");
+
+        Instant now = Instant.now();
+        statements.start();
+        FraudFeatures f = featureLoader.load(u.getId(), EXTERNAL_IBAN, now);
+        List<String> sql = statements.stop();
+
+        assertEquals(1, sql.size(), () -> "Statements: " + sql);
+        assertTrue(f.knownBeneficiary());
+        assertEquals(2, f.velocity(Duration.ofSeconds(60)).count());
+        assertEquals(0, new BigDecimal("25.00").compareTo(f.velocity(Duration.ofSeconds(60)).amount()));
+        assertNotNull(f.accountCreatedAt());
+        assertNull(f.lockedUntil());
+    }
+
+    @Test
+    void batchIsScoredCumulativelyInOneRoundTrip() {
+        UserEntity u = coldUser();
+        List<FraudService.Payment> items = java.util.stream.IntStream.range(0, 20)
+                .mapToObj(i -> new FraudService.Payment(String.format("IT60X05428111010000%08d", i), new BigDecimal("499.00")))
+                .toList();
+
+        statements.start();
+        List<FraudDecision> decisions = fraudService.evaluateBatch(u.getId(), items, Instant.now());
+        List<String> sql = statements.stop();
+
+        assertEquals(1, sql.size(), () -> "Statements: " + sql);
+        assertEquals(FraudDecision.Action.ALLOW, decisions.get(0).action());
+        assertNotEquals(FraudDecision.Action.ALLOW, decisions.get(items.size() - 1).action());
+        assertTrue(decisions.get(items.size() - 1).reasons().contains("High transfer velocity"));
+    }
+
+    @Test
+    void lockAndUnknownUserComeFromTheFeatures() {
+        UserEntity u = coldUser();
+        fraudService.applyTemporaryLock(u.getId(), Instant.now(), List.of("test"));
+
+        FraudDecision d = fraudService.evaluate(u.getId(), EXTERNAL_IBAN, new BigDecimal("10.00"), Instant.now());
+        assertEquals(FraudDecision.Action.BLOCK, d.action());
+        assertNotNull(d.lockedUntil());
+        assertTrue(fraudService.checkLock(u.getId(), Instant.now()).locked());
+
+        UUID unknown = UUID.randomUUID();
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> fraudService.checkLock(unknown, Instant.now()));
+        assertEquals("User not found", ex.getMessage());
+    }
+
+    // Saved without AuthService: nothing about this user is in memory yet
+    private UserEntity coldUser() {
+        UserEntity u = UserEntity.create("fraud-" + UUID.randomUUID() + "@vaultbank.test", "x");
+        u.setIban(ibanGenerator.generateItalianIban());
+        balanceCodec.writeCents(u, 1000_00L);
+        return userRepository.save(u);
+    }
+}
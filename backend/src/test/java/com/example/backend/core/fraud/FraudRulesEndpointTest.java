@@ -0,0 +1,84 @@
+package com.example.backend.core.fraud;
+
+import com.example.backend.core.auth.AuthService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /actuator/fraudrules end to end: an admin token from a normal login changes a cutoff and the plan follows.
+ */
+@SpringBootTest(properties = {
+        "vaultbank.balance.migration.enabled=false",
+        "vaultbank.ledger.backfill.enabled=false",
+        "vaultbank.beneficiaries.backfill.enabled=false",
+        "vaultbank.settlement.enabled=false",
+        "vaultbank.admin.emails=" + FraudRulesEndpointTest.ADMIN
+})
+@AutoConfigureMockMvc
+class FraudRulesEndpointTest {
+
+    static final String ADMIN = "fraud-admin@vaultbank.test";
+    private static final String PASSWORD = "Password123!";
+
+    @Autowired MockMvc mvc;
+    @Autowired AuthService authService;
+    @Autowired FraudRuleEngine engine;
+    @Autowired FraudRulesEndpoint endpoint;
+
+    @AfterEach
+    void reset() {
+        endpoint.reset();
+    }
+
+    @Test
+    void adminLoginReloadsTheRules() throws Exception {
+        AuthService.TokenResult admin = login(ADMIN);
+        assertTrue(admin.scope().contains("admin"), admin.scope());
+        int blockScore = engine.summary().blockScore() + 5;
+
+        mvc.perform(post("/actuator/fraudrules")
+                        .header("Authorization", "Bearer " + admin.token())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"key\": \"vaultbank.fraud.block-score\", \"value\": \"" + blockScore + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockScore").value(blockScore));
+        assertEquals(blockScore, engine.summary().blockScore());
+
+        mvc.perform(delete("/actuator/fraudrules").header("Authorization", "Bearer " + admin.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockScore").value(blockScore - 5));
+    }
+
+    @Test
+    void otherUsersCannotChangeTheRules() throws Exception {
+        AuthService.TokenResult user = login("fraud-user-" + UUID.randomUUID() + "@vaultbank.test");
+        assertFalse(user.scope().contains("admin"), user.scope());
+
+        mvc.perform(post("/actuator/fraudrules")
+                        .header("Authorization", "Bearer " + user.token())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"key\": \"vaultbank.fraud.block-score\", \"value\": \"1\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    private AuthService.TokenResult login(String email) {
+        try {
+            authService.register(email, PASSWORD, "Fraud", "Rules", "+39 333 0000000");
+        } catch (IllegalArgumentException alreadyRegistered) {
+            // The admin account survives from an earlier run against the same database
+        }
+        return authService.login(email, PASSWORD);
+    }
+}
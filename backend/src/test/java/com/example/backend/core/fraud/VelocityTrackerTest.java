@@ -0,0 +1,88 @@
+package com.example.backend.core.fraud;
+
+import com.example.backend.core.transfer.TransferEntity;
+import com.example.backend.core.transfer.TransferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityTrackerTest {
+
+    private static final Duration MINUTE = Duration.ofSeconds(60);
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final VelocityTracker tracker = new VelocityTracker(noRepository(), new SimpleMeterRegistry(),
+            List.of(HOUR, MINUTE), 60, 1000);
+
+    @Test
+    void transfersLeaveEachWindowOnceOlderThanIt() {
+        UUID userId = UUID.randomUUID();
+        Instant t0 = Instant.parse("2025-03-01T10:00:00Z");
+        List<TransferRepository.OutgoingAmount> history = List.of(
+                outgoing(t0.minusSeconds(30), "10.00"),
+                outgoing(t0.minus(Duration.ofMinutes(30)), "5.00"));
+
+        assertVelocity(tracker.velocities(userId, t0, () -> history), 1, "10.00", 2, "15.00");
+        // The 30s-old transfer is past the minute, the 30-minute-old one still within the hour
+        assertVelocity(tracker.velocities(userId, t0.plusSeconds(45), List::of), 0, "0.00", 2, "15.00");
+        // Only the 30s-old transfer is left in the hour
+        assertVelocity(tracker.velocities(userId, t0.plus(Duration.ofMinutes(31)), List::of), 0, "0.00", 1, "10.00");
+        assertVelocity(tracker.velocities(userId, t0.plus(HOUR), List::of), 0, "0.00", 0, "0.00");
+    }
+
+    @Test
+    void historyOlderThanTheLongestWindowIsIgnored() {
+        UUID userId = UUID.randomUUID();
+        Instant t0 = Instant.parse("2025-03-01T10:00:00Z");
+
+        List<VelocityTracker.Velocity> v = tracker.velocities(userId, t0,
+                () -> List.of(outgoing(t0.minus(Duration.ofHours(2)), "99.00")));
+
+        assertVelocity(v, 0, "0.00", 0, "0.00");
+    }
+
+    @Test
+    void committedTransfersAreCountedForLoadedUsers() {
+        UUID userId = UUID.randomUUID();
+        tracker.startEmpty(userId);
+
+        tracker.recordAfterCommit(List.of(
+                TransferEntity.create(userId, null, "IT02L1234512345123456789012", "IT60X0542811101000000123456", "a", new BigDecimal("1.50")),
+                TransferEntity.create(userId, null, "IT02L1234512345123456789012", "IT60X0542811101000000123456", "b", new BigDecimal("2.50"))));
+
+        assertVelocity(tracker.velocities(userId, Instant.now(), List::of), 2, "4.00", 2, "4.00");
+    }
+
+    // Windows come back shortest first
+    private static void assertVelocity(List<VelocityTracker.Velocity> v, long minuteCount, String minuteAmount,
+                                       long hourCount, String hourAmount) {
+        assertEquals(MINUTE, v.get(0).window());
+        assertEquals(minuteCount, v.get(0).count(), "minute count");
+        assertEquals(new BigDecimal(minuteAmount), v.get(0).amount(), "minute amount");
+        assertEquals(HOUR, v.get(1).window());
+        assertEquals(hourCount, v.get(1).count(), "hour count");
+        assertEquals(new BigDecimal(hourAmount), v.get(1).amount(), "hour amount");
+    }
+
+    private static TransferRepository.OutgoingAmount outgoing(Instant at, String amount) {
+        return new TransferRepository.OutgoingAmount() {
+            @Override public Instant getCreatedAt() { return at; }
+            @Override public BigDecimal getAmount() { return new BigDecimal(amount); }
+        };
+    }
+
+    private static TransferRepository noRepository() {
+        return (TransferRepository) Proxy.newProxyInstance(VelocityTrackerTest.class.getClassLoader(),
+                new Class<?>[]{TransferRepository.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.benchmarks;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.core.auth.AuthService;
+import com.example.backend.core.user.UserEntity;
+import com.example.backend.core.user.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Full backend application context (no web server) against a throwaway embedded PostgreSQL.
+ */
+final class BackendContext implements AutoCloseable {
+
+    final EmbeddedPostgres postgres;
+    final ConfigurableApplicationContext context;
+
+    private BackendContext(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    static BackendContext start(String... extraArgs) throws IOException {
+        EmbeddedPostgres pg = EmbeddedPostgres.start();
+
+        String[] base = {
+                "--spring.datasource.url=" + pg.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--vaultbank.crypto.aes-key-b64=" + Fixtures.AES_KEY_B64,
+                "--vaultbank.jwt.hs256-secret-b64=" + Fixtures.JWT_SECRET_B64,
+                "--vaultbank.balance.migration.enabled=false",
+                "--vaultbank.ledger.backfill.enabled=false",
+                "--vaultbank.beneficiaries.backfill.enabled=false",
+                "--vaultbank.settlement.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"
+        };
+        String[] args = Stream.concat(Stream.of(base), Stream.of(extraArgs)).toArray(String[]::new);
+
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+        return new BackendContext(pg, ctx);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Registers accounts through the normal registration path (1000.00 opening balance each).
+     */
+    List<UserEntity> registerAccounts(int count) {
+        AuthService auth = bean(AuthService.class);
+        UserRepository users = bean(UserRepository.class);
+
+        List<UserEntity> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "bench" + i + "@vaultbank.test";
+            auth.register(email, "Password123!", "Bench", "User " + i, "+39 333 0000000");
+            out.add(users.findByEmail(email).orElseThrow());
+        }
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
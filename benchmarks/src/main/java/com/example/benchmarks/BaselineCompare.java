@@ -0,0 +1,78 @@
+package com.example.benchmarks;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON results and exits with status 1 if any benchmark regressed by more than the threshold.
+ * Usage: BaselineCompare baseline.json current.json [maxRegressionPercent=10]
+ *
+ * Throughput must not drop; sample/average time and gc.alloc.rate.norm (bytes/op) must not grow.
+ */
+public final class BaselineCompare {
+
+    private BaselineCompare() { }
+
+    private record Score(double value, boolean higherIsBetter, String unit) {}
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCompare <baseline.json> <current.json> [maxRegressionPercent]");
+            System.exit(2);
+        }
+        double maxPct = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> e : current.entrySet()) {
+            Score before = baseline.get(e.getKey());
+            if (before == null || before.value() == 0) continue;
+
+            Score now = e.getValue();
+            double deltaPct = (now.value() - before.value()) / before.value() * 100.0;
+            double worsePct = now.higherIsBetter() ? -deltaPct : deltaPct;
+            boolean regressed = worsePct > maxPct;
+            if (regressed) regressions++;
+
+            System.out.printf("%s %-90s %14.3f -> %14.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSION" : "ok        ", e.getKey(), before.value(), now.value(), now.unit(), deltaPct);
+        }
+
+        System.out.println(regressions == 0 ? "No regressions above " + maxPct + "%" : regressions + " regression(s) above " + maxPct + "%");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static Map<String, Score> read(File file) {
+        JsonNode root = JsonMapper.builder().build().readTree(file);
+        Map<String, Score> out = new LinkedHashMap<>();
+
+        for (JsonNode run : root) {
+            String mode = run.path("mode").asString();
+            String key = run.path("benchmark").asString() + " [" + mode + "]" + params(run.path("params"));
+
+            JsonNode primary = run.path("primaryMetric");
+            out.put(key, new Score(primary.path("score").asDouble(), "thrpt".equals(mode), primary.path("scoreUnit").asString()));
+
+            JsonNode alloc = run.path("secondaryMetrics").path("gc.alloc.rate.norm");
+            if (alloc.isMissingNode()) alloc = run.path("secondaryMetrics").path("·gc.alloc.rate.norm"); // pre-1.36 label
+            if (!alloc.isMissingNode()) {
+                out.put(key + " alloc", new Score(alloc.path("score").asDouble(), false, alloc.path("scoreUnit").asString()));
+            }
+        }
+        return out;
+    }
+
+    private static String params(JsonNode params) {
+        if (params.isMissingNode() || params.isEmpty()) return "";
+        Map<String, String> sorted = new TreeMap<>();
+        for (Map.Entry<String, JsonNode> p : params.properties()) sorted.put(p.getKey(), p.getValue().asString());
+        return " " + sorted;
+    }
+}
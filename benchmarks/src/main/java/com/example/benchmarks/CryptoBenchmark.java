@@ -0,0 +1,79 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.banking.BalanceCodec;
+import com.example.backend.core.crypto.CryptoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoBenchmark {
+
+    private static final String NAME = "Mario Rossi";
+    private static final BigDecimal AMOUNT = new BigDecimal("12345.67");
+
+    private CryptoService crypto;
+    private BalanceCodec balanceCodec;
+
+    private String storedName;
+    private String legacyName;
+    private String storedAmount;
+    private byte[] storedCents;
+
+    @Setup
+    public void setUp() throws Exception {
+        crypto = Fixtures.cryptoService();
+        balanceCodec = new BalanceCodec(crypto);
+
+        storedName = crypto.encryptString(NAME);
+        legacyName = Fixtures.legacyCiphertext(NAME);
+        storedAmount = crypto.encryptBigDecimal(AMOUNT);
+        storedCents = balanceCodec.encrypt(1234567L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        crypto.shutdown();
+    }
+
+    @Benchmark
+    public String encryptString() {
+        return crypto.encryptString(NAME);
+    }
+
+    @Benchmark
+    public String decryptString() {
+        return crypto.decryptString(storedName);
+    }
+
+    @Benchmark
+    public String decryptLegacyString() {
+        return crypto.decryptString(legacyName);
+    }
+
+    @Benchmark
+    public String encryptBigDecimal() {
+        return crypto.encryptBigDecimal(AMOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal decryptBigDecimal() {
+        return crypto.decryptBigDecimal(storedAmount);
+    }
+
+    @Benchmark
+    public byte[] encryptBalanceCents() {
+        return balanceCodec.encrypt(1234567L);
+    }
+
+    @Benchmark
+    public long decryptBalanceCents() {
+        return balanceCodec.decrypt(storedCents);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.crypto.AesKeyRing;
+import com.example.backend.core.crypto.CryptoService;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+
+final class Fixtures {
+
+    // Fixed keys: benchmark data only
+    static final byte[] AES_KEY = new byte[32];
+    static final String AES_KEY_B64 = Base64.getEncoder().encodeToString(AES_KEY);
+    static final String JWT_SECRET_B64 = Base64.getEncoder().encodeToString(new byte[48]);
+
+    private Fixtures() { }
+
+    static SecretKey aesKey() {
+        return new SecretKeySpec(AES_KEY, "AES");
+    }
+
+    static CryptoService cryptoService() {
+        return new CryptoService(new AesKeyRing(Map.of(1, aesKey()), 1, 1), 0, 256, 256);
+    }
+
+    /**
+     * A value in the pre-envelope b64(iv):b64(ct) format, as still found in old users rows.
+     */
+    static String legacyCiphertext(String plaintext) throws Exception {
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, aesKey(), new GCMParameterSpec(128, iv));
+        byte[] ct = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(iv) + ":" + Base64.getEncoder().encodeToString(ct);
+    }
+}
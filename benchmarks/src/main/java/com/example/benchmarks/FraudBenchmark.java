@@ -0,0 +1,95 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.background.BackgroundJob;
+import com.example.backend.core.background.BackgroundJobs;
+import com.example.backend.core.beneficiary.BeneficiaryIndex;
+import com.example.backend.core.fraud.FraudDecision;
+import com.example.backend.core.fraud.FraudFeatureLoader;
+import com.example.backend.core.fraud.FraudRule;
+import com.example.backend.core.fraud.FraudRuleEngine;
+import com.example.backend.core.fraud.FraudService;
+import com.example.backend.core.fraud.LockRegistry;
+import com.example.backend.core.fraud.VelocityTracker;
+import com.example.backend.core.transfer.TransferEntity;
+import com.example.backend.core.transfer.TransferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FraudBenchmark {
+
+    // Outgoing history of the evaluated user
+    @Param({"10", "1000"})
+    int historySize;
+
+    private FraudRuleEngine engine;
+    private FraudService fraudService;
+    private UUID userId;
+    private String knownIban;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        userId = UUID.randomUUID();
+        now = Instant.now();
+        knownIban = "IT60X0542811101000000123456";
+
+        List<TransferEntity> rows = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            String to = i == 0 ? knownIban : String.format("IT60X05428111010000%08d", i);
+            rows.add(TransferEntity.create(userId, null, "IT02L1234512345123456789012", to, "Bonifico", new BigDecimal("10.00")));
+        }
+
+        TransferRepository transfers = InMemoryRepositories.transfers(rows);
+        VelocityTracker velocity = new VelocityTracker(transfers, new SimpleMeterRegistry(),
+                List.of(Duration.ofSeconds(60), Duration.ofHours(1), Duration.ofHours(24)), 60, 1000);
+        BeneficiaryIndex beneficiaries = new BeneficiaryIndex(InMemoryRepositories.beneficiaries(rows), new SimpleMeterRegistry(), 100_000);
+        // No locks: the registry loads an empty result and stops
+        LockRegistry locks = new LockRegistry(InMemoryRepositories.emptyJdbc(), new SimpleMeterRegistry(), true, Duration.ofHours(1), 500);
+        BackgroundJobs jobs = new BackgroundJobs(new DefaultListableBeanFactory().getBeanProvider(BackgroundJob.class));
+        jobs.start(locks);
+        while (!locks.isLoaded()) Thread.onSpinWait();
+        jobs.stop();
+
+        FraudFeatureLoader loader = new FraudFeatureLoader(InMemoryRepositories.emptyJdbc(), velocity, beneficiaries, locks,
+                new SimpleMeterRegistry(), 1000);
+        // Warm every store through the stand-ins, as the single fetch would: evaluations never touch the DB
+        velocity.velocities(userId, now);
+        beneficiaries.isKnown(userId, knownIban);
+        loader.registered(userId, now.minus(Duration.ofDays(365)));
+
+        engine = new FraudRuleEngine(new StandardEnvironment(), velocity, loader,
+                new DefaultListableBeanFactory().getBeanProvider(FraudRule.class), new SimpleMeterRegistry());
+        fraudService = new FraudService(InMemoryRepositories.users(), engine, locks, loader, 180);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.stop();
+    }
+
+    @Benchmark
+    public FraudDecision knownBeneficiarySmallAmount() {
+        return fraudService.evaluate(userId, knownIban, new BigDecimal("50.00"), now);
+    }
+
+    @Benchmark
+    public FraudDecision newBeneficiaryHighAmount() {
+        return fraudService.evaluate(userId, "IT60X0542811101000000999999", new BigDecimal("2500.00"), now);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.banking.IbanGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IbanBenchmark {
+
+    private final IbanGenerator generator = new IbanGenerator("99999");
+
+    @Benchmark
+    public String generateItalianIban() {
+        return generator.generateItalianIban();
+    }
+}
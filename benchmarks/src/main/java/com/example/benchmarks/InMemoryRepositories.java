@@ -0,0 +1,82 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.beneficiary.BeneficiaryRepository;
+import com.example.backend.core.transfer.TransferEntity;
+import com.example.backend.core.transfer.TransferRepository;
+import com.example.backend.core.user.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository stand-ins backed by plain lists, so services can be benchmarked without a database.
+ * Only the query methods the benchmarked code calls are implemented.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() { }
+
+    static TransferRepository transfers(List<TransferEntity> rows) {
+        return proxy(TransferRepository.class, (method, args) -> switch (method) {
+            case "findOutgoingSince" -> rows.stream()
+                    .filter(t -> t.getFromUserId().equals(args[0]) && t.getCreatedAt().isAfter((Instant) args[1]))
+                    .map(InMemoryRepositories::outgoing)
+                    .toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    // Beneficiaries derived from the transfer rows, as the backfill would write them
+    static BeneficiaryRepository beneficiaries(List<TransferEntity> rows) {
+        return proxy(BeneficiaryRepository.class, (method, args) -> switch (method) {
+            case "findIbansByUserId" -> rows.stream()
+                    .filter(t -> t.getFromUserId().equals(args[0]))
+                    .map(TransferEntity::getToIban)
+                    .distinct()
+                    .toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    static UserRepository users() {
+        return proxy(UserRepository.class, (method, args) -> {
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    // Every query finds no rows, every update touches none
+    static JdbcTemplate emptyJdbc() {
+        return new JdbcTemplate() {
+            @Override
+            public void query(String sql, RowCallbackHandler rch, Object... args) { }
+
+            @Override
+            public int update(String sql, Object... args) { return 0; }
+        };
+    }
+
+    private static TransferRepository.OutgoingAmount outgoing(TransferEntity t) {
+        return new TransferRepository.OutgoingAmount() {
+            @Override public Instant getCreatedAt() { return t.getCreatedAt(); }
+            @Override public BigDecimal getAmount() { return t.getAmount(); }
+        };
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, m, args) -> switch (m.getName()) {
+            case "hashCode" -> System.identityHashCode(p);
+            case "equals" -> p == args[0];
+            case "toString" -> "InMemory" + type.getSimpleName();
+            default -> handler.handle(m.getName(), args);
+        });
+    }
+}
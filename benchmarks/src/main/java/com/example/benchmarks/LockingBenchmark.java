@@ -0,0 +1,66 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.banking.BankingService;
+import com.example.backend.core.banking.TransferLocking;
+import com.example.backend.core.user.UserEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pessimistic vs optimistic transfer locking (TransferLocking) against embedded PostgreSQL.
+ * 4 accounts = high contention, 1024 = low contention. Meaningful with several threads, e.g. -t 8.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LockingBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"pessimistic", "optimistic"})
+    String locking;
+
+    @Param({"4", "1024"})
+    int accounts;
+
+    private BackendContext backend;
+    private TransferLocking transferLocking;
+    private UUID[] ids;
+    private String[] ibans;
+
+    @State(Scope.Thread)
+    public static class Picker {
+        final SplittableRandom rnd = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = BackendContext.start("--vaultbank.transfer.locking=" + locking);
+        transferLocking = backend.bean(TransferLocking.class);
+
+        List<UserEntity> users = backend.registerAccounts(accounts);
+        ids = users.stream().map(UserEntity::getId).toArray(UUID[]::new);
+        ibans = users.stream().map(UserEntity::getIban).toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Benchmark
+    public BankingService.TransferResult internalTransfer(Picker p) {
+        int from = p.rnd.nextInt(ids.length);
+        int to = (from + 1 + p.rnd.nextInt(ids.length - 1)) % ids.length;
+        return transferLocking.transfer(new BankingService.TransferCommand(ids[from], ibans[to], AMOUNT, "bench"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.auth.AuthService;
+import com.example.backend.core.banking.BankingService;
+import com.example.backend.core.user.UserEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Platform vs virtual request threads under the same mix of blocking work: bcrypt logins and contended
+ * transfers (row locks). The platform pool mirrors Tomcat's default (200 threads); the virtual run also
+ * enables spring.threads.virtual.enabled, so the JDBC gate is active. One op = one request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadingBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"32"})
+    int accounts;
+
+    // Share of requests that are logins, the rest are transfers
+    @Param({"20"})
+    int loginPercent;
+
+    private BackendContext backend;
+    private BankingService bankingService;
+    private AuthService authService;
+    private ExecutorService executor;
+    private UUID[] ids;
+    private String[] ibans;
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        boolean virtual = threads.equals("virtual");
+        backend = BackendContext.start("--spring.threads.virtual.enabled=" + virtual);
+        bankingService = backend.bean(BankingService.class);
+        authService = backend.bean(AuthService.class);
+
+        List<UserEntity> users = backend.registerAccounts(accounts);
+        ids = users.stream().map(UserEntity::getId).toArray(UUID[]::new);
+        ibans = users.stream().map(UserEntity::getIban).toArray(String[]::new);
+        emails = users.stream().map(UserEntity::getEmail).toArray(String[]::new);
+
+        executor = virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(200);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        backend.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int requests() throws Exception {
+        SplittableRandom rnd = new SplittableRandom();
+        List<Callable<Object>> tasks = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int from = rnd.nextInt(ids.length);
+            if (rnd.nextInt(100) < loginPercent) {
+                tasks.add(() -> authService.login(emails[from], "Password123!"));
+            } else {
+                int to = (from + 1 + rnd.nextInt(ids.length - 1)) % ids.length;
+                tasks.add(() -> bankingService.transfer(ids[from], ibans[to], AMOUNT, "bench"));
+            }
+        }
+
+        int ok = 0;
+        for (Future<Object> f : executor.invokeAll(tasks)) {
+            try {
+                f.get();
+                ok++;
+            } catch (ExecutionException ignored) {
+                // Lock or JDBC gate timeout: counted as a failed request, not a benchmark error
+            }
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.benchmarks;
+
+import com.example.backend.core.banking.BankingService;
+import com.example.backend.core.user.UserEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BankingService.transfer end to end (locks, crypto, JPA, commit) against embedded PostgreSQL.
+ * Run with -t N to add contention; fewer accounts means hotter rows.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+    private static final String EXTERNAL_IBAN = "IT60X0542811101000000123456";
+
+    @Param({"32"})
+    int accounts;
+
+    private BackendContext backend;
+    private BankingService bankingService;
+    private UUID[] ids;
+    private String[] ibans;
+
+    @State(Scope.Thread)
+    public static class Picker {
+        final SplittableRandom rnd = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        backend = BackendContext.start();
+        bankingService = backend.bean(BankingService.class);
+
+        List<UserEntity> users = backend.registerAccounts(accounts);
+        ids = users.stream().map(UserEntity::getId).toArray(UUID[]::new);
+        ibans = users.stream().map(UserEntity::getIban).toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backend.close();
+    }
+
+    @Benchmark
+    public BankingService.TransferResult internalTransfer(Picker p) {
+        int from = p.rnd.nextInt(ids.length);
+        int to = (from + 1 + p.rnd.nextInt(ids.length - 1)) % ids.length;
+        return bankingService.transfer(ids[from], ibans[to], AMOUNT, "bench");
+    }
+
+    @Benchmark
+    public BankingService.TransferResult externalTransfer(Picker p) {
+        return bankingService.transfer(ids[p.rnd.nextInt(ids.length)], EXTERNAL_IBAN, AMOUNT, "bench");
+    }
+}